@@ -0,0 +1,60 @@
+package com.dperalta.secret_santa.benchmark;
+
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.DrawStatus;
+import com.dperalta.secret_santa.model.Participant;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba en memoria para los benchmarks (sin base de datos).
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Crea un sorteo con {@code participantCount} participantes con ids asignados.
+     * Si {@code assigned} es true, cada participante queda asignado al siguiente (circular).
+     */
+    public static Draw draw(int participantCount, boolean assigned) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Draw draw = Draw.builder()
+                .id(1L)
+                .code("BENCH1")
+                .name("Benchmark Office Party")
+                .description("Annual gift exchange, bring something handmade if you can.")
+                .drawDate(now.plusDays(30))
+                .budgetLimit(new BigDecimal("25.00"))
+                .status(assigned ? DrawStatus.DRAWN : DrawStatus.PENDING)
+                .participants(new ArrayList<>(participantCount))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        for (int i = 0; i < participantCount; i++) {
+            draw.addParticipant(Participant.builder()
+                    .id((long) i + 1)
+                    .name("Participant " + i)
+                    .email("participant" + i + "@example.com")
+                    .phone("+1-555-" + i)
+                    .notificationSent(false)
+                    .createdAt(now)
+                    .build());
+        }
+
+        if (assigned) {
+            List<Participant> participants = draw.getParticipants();
+            for (int i = 0; i < participantCount; i++) {
+                participants.get(i).setAssignedTo(participants.get((i + 1) % participantCount));
+            }
+        }
+
+        return draw;
+    }
+}
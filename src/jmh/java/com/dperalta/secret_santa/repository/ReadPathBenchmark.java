@@ -0,0 +1,185 @@
+package com.dperalta.secret_santa.repository;
+
+import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.DrawStatus;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.projection.AssignmentView;
+import com.dperalta.secret_santa.repository.projection.DrawView;
+import com.dperalta.secret_santa.repository.projection.ParticipantView;
+import com.dperalta.secret_santa.utils.DrawMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Camino de lectura con entidades (JOIN FETCH + DrawMapper) contra proyecciones a records,
+ * sobre Hibernate y H2 en memoria. Cada operación abre sesión y transacción read-only como una request.
+ * Con {@code -prof gc} (incluido en el perfil jmh) se ve la asignación por request en gc.alloc.rate.norm.
+ * Las consultas son las mismas de DrawRepository y ParticipantRepository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final String CODE = "BENCH1";
+
+    private static final String DRAW_WITH_PARTICIPANTS =
+            "SELECT d FROM Draw d LEFT JOIN FETCH d.participants WHERE d.code = :code";
+
+    private static final String DRAW_VIEW =
+            "SELECT new com.dperalta.secret_santa.repository.projection.DrawView(" +
+            "d.id, d.code, d.name, d.description, d.drawDate, d.budgetLimit, d.status, d.createdAt, d.updatedAt) " +
+            "FROM Draw d WHERE d.code = :code";
+
+    private static final String PARTICIPANT_VIEWS =
+            "SELECT new com.dperalta.secret_santa.repository.projection.ParticipantView(" +
+            "p.id, p.name, p.email, p.phone, p.notificationSent, p.notificationSentAt, p.createdAt) " +
+            "FROM Participant p WHERE p.draw.id = :drawId ORDER BY p.id";
+
+    private static final String PARTICIPANT_WITH_ASSIGNMENT =
+            "SELECT p FROM Participant p JOIN FETCH p.draw d LEFT JOIN FETCH p.assignedTo " +
+            "WHERE d.code = :code AND p.emailNormalized = :normalizedEmail";
+
+    private static final String ASSIGNMENT_VIEW =
+            "SELECT new com.dperalta.secret_santa.repository.projection.AssignmentView(" +
+            "d.name, d.status, p.name, p.email, r.name, r.email) " +
+            "FROM Participant p JOIN p.draw d LEFT JOIN p.assignedTo r " +
+            "WHERE d.code = :code AND p.emailNormalized = :normalizedEmail";
+
+    @Param({"10", "100", "1000"})
+    private int participants;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private String giverEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:read-path-" + participants + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Draw.class)
+                .addAnnotatedClass(Participant.class)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            LocalDateTime now = LocalDateTime.now();
+            Draw draw = Draw.builder()
+                    .code(CODE)
+                    .name("Benchmark Office Party")
+                    .description("Annual gift exchange, bring something handmade if you can.")
+                    .drawDate(now.plusDays(30))
+                    .budgetLimit(new BigDecimal("25.00"))
+                    .status(DrawStatus.DRAWN)
+                    .build();
+            for (int i = 0; i < participants; i++) {
+                draw.addParticipant(Participant.builder()
+                        .name("Participant " + i)
+                        .email("participant" + i + "@example.com")
+                        .phone("+1-555-" + i)
+                        .notificationSent(true)
+                        .notificationSentAt(now)
+                        .build());
+            }
+            session.persist(draw);
+            session.flush();
+
+            // Cada participante le regala al siguiente (circular)
+            List<Participant> list = draw.getParticipants();
+            for (int i = 0; i < participants; i++) {
+                list.get(i).setAssignedTo(list.get((i + 1) % participants));
+            }
+        });
+        // email_normalized es una columna generada en MySQL; acá se completa a mano
+        sessionFactory.inTransaction(session -> session
+                .createNativeMutationQuery("UPDATE participants SET email_normalized = LOWER(email)")
+                .executeUpdate());
+
+        giverEmail = "participant" + (participants / 2) + "@example.com";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public DrawDetailResponse detailEntities() {
+        return readOnly(session -> {
+            Draw draw = session.createSelectionQuery(DRAW_WITH_PARTICIPANTS, Draw.class)
+                    .setParameter("code", CODE)
+                    .getSingleResult();
+            return DrawMapper.toDrawDetailResponse(draw);
+        });
+    }
+
+    @Benchmark
+    public DrawDetailResponse detailProjection() {
+        return readOnly(session -> {
+            DrawView draw = session.createSelectionQuery(DRAW_VIEW, DrawView.class)
+                    .setParameter("code", CODE)
+                    .getSingleResult();
+            List<ParticipantView> views = session.createSelectionQuery(PARTICIPANT_VIEWS, ParticipantView.class)
+                    .setParameter("drawId", draw.id())
+                    .getResultList();
+            return DrawMapper.toDrawDetailResponse(draw, views);
+        });
+    }
+
+    @Benchmark
+    public String assignmentEntities() {
+        return readOnly(session -> {
+            Participant participant = session.createSelectionQuery(PARTICIPANT_WITH_ASSIGNMENT, Participant.class)
+                    .setParameter("code", CODE)
+                    .setParameter("normalizedEmail", giverEmail)
+                    .getSingleResult();
+            return participant.getDraw().getName() + participant.getAssignedTo().getEmail();
+        });
+    }
+
+    @Benchmark
+    public String assignmentProjection() {
+        return readOnly(session -> {
+            AssignmentView view = session.createSelectionQuery(ASSIGNMENT_VIEW, AssignmentView.class)
+                    .setParameter("code", CODE)
+                    .setParameter("normalizedEmail", giverEmail)
+                    .getSingleResult();
+            return view.drawName() + view.receiverEmail();
+        });
+    }
+
+    /**
+     * Igual que {@code @Transactional(readOnly = true)} de Spring: sesión read-only y sin flush.
+     */
+    private <T> T readOnly(Function<Session, T> work) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            session.beginTransaction();
+            try {
+                return work.apply(session);
+            } finally {
+                session.getTransaction().commit();
+            }
+        }
+    }
+}
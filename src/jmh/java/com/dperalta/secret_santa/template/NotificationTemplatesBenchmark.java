@@ -0,0 +1,53 @@
+package com.dperalta.secret_santa.template;
+
+import com.dperalta.secret_santa.benchmark.BenchmarkFixtures;
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.template.NotificationTemplates.DrawTemplates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el armado de los cuerpos de email (texto + HTML) de todo un sorteo, sin enviar nada.
+ * Comparar gc.alloc.rate.norm entre resolver el sorteo una vez o una vez por participante.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationTemplatesBenchmark {
+
+    @Param({"3", "100", "1000", "10000", "100000"})
+    private int participants;
+
+    private Draw draw;
+    private NotificationTemplates templates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        draw = BenchmarkFixtures.draw(participants, true);
+        templates = new NotificationTemplates("http://localhost:3000");
+    }
+
+    @Benchmark
+    public void renderBoundOncePerDraw(Blackhole blackhole) {
+        DrawTemplates drawTemplates = templates.forDraw(draw);
+        for (Participant giver : draw.getParticipants()) {
+            blackhole.consume(drawTemplates.renderText(giver, giver.getAssignedTo()));
+            blackhole.consume(drawTemplates.renderHtml(giver, giver.getAssignedTo()));
+        }
+    }
+
+    @Benchmark
+    public void renderBoundPerParticipant(Blackhole blackhole) {
+        for (Participant giver : draw.getParticipants()) {
+            DrawTemplates drawTemplates = templates.forDraw(draw);
+            blackhole.consume(drawTemplates.renderText(giver, giver.getAssignedTo()));
+            blackhole.consume(drawTemplates.renderHtml(giver, giver.getAssignedTo()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dperalta.secret_santa.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+    /**
+     * Cantidad de códigos ya existentes que consulta generateUnique.
+     */
+    @Param({"3", "100", "1000", "10000", "100000"})
+    private int existingCodes;
+
+    private Set<String> taken;
+
+    private Base62Feistel permutation;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taken = new HashSet<>(existingCodes * 2);
+        while (taken.size() < existingCodes) {
+            taken.add(CodeGenerator.generate());
+        }
+        permutation = new Base62Feistel("benchmark-key".getBytes(StandardCharsets.UTF_8), 6);
+        sequence = existingCodes;
+    }
+
+    @Benchmark
+    public String generate() {
+        return CodeGenerator.generate();
+    }
+
+    @Benchmark
+    public String generateUnique() {
+        return CodeGenerator.generateUnique(taken::contains);
+    }
+
+    /**
+     * Código por permutación de la secuencia: no depende de cuántos códigos existen.
+     */
+    @Benchmark
+    public String feistelEncode() {
+        return permutation.encode(sequence++ % permutation.domainSize());
+    }
+}
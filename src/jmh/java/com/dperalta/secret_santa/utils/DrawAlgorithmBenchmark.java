@@ -0,0 +1,39 @@
+package com.dperalta.secret_santa.utils;
+
+import com.dperalta.secret_santa.benchmark.BenchmarkFixtures;
+import com.dperalta.secret_santa.model.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawAlgorithmBenchmark {
+
+    @Param({"3", "100", "1000", "10000", "100000"})
+    private int participants;
+
+    private List<Participant> participantList;
+    private DrawAssignment assignment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        participantList = BenchmarkFixtures.draw(participants, false).getParticipants();
+        assignment = DrawAlgorithm.performDraw(participantList);
+    }
+
+    @Benchmark
+    public DrawAssignment performDraw() {
+        return DrawAlgorithm.performDraw(participantList);
+    }
+
+    @Benchmark
+    public boolean isValidDraw() {
+        return DrawAlgorithm.isValidDraw(assignment);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dperalta.secret_santa.utils;
+
+import com.dperalta.secret_santa.benchmark.BenchmarkFixtures;
+import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
+import com.dperalta.secret_santa.model.Draw;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawMapperBenchmark {
+
+    @Param({"3", "100", "1000", "10000", "100000"})
+    private int participants;
+
+    private Draw draw;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        draw = BenchmarkFixtures.draw(participants, true);
+    }
+
+    @Benchmark
+    public DrawDetailResponse toDrawDetailResponse() {
+        return DrawMapper.toDrawDetailResponse(draw);
+    }
+}
@@ -0,0 +1,96 @@
+package com.dperalta.secret_santa.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Contención de un SecureRandom compartido frente a uno por hilo y al conjunto por franjas, con tantos
+ * hilos como núcleos. Cada operación baraja un arreglo de 64 índices, como hace el sorteo por participante.
+ * <p>
+ * Los casos {@code virtual*} corren cada operación en un hilo virtual nuevo, como un request del servidor:
+ * ahí un generador por hilo se crea y se siembra en cada operación.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class RandomContentionBenchmark {
+
+    private static final int SHUFFLE_SIZE = 64;
+
+    @Param({"DRBG", "SHA1PRNG", "NativePRNGNonBlocking"})
+    private String algorithm;
+
+    private SecureRandom shared;
+    private ThreadLocal<SecureRandom> perThread;
+    private StripedSecureRandom striped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchAlgorithmException {
+        shared = SecureRandom.getInstance(algorithm);
+        perThread = ThreadLocal.withInitial(() -> newInstance(algorithm));
+        striped = new StripedSecureRandom(algorithm);
+    }
+
+    @State(Scope.Thread)
+    public static class Indexes {
+        final int[] values = new int[SHUFFLE_SIZE];
+    }
+
+    @Benchmark
+    public int[] shared(Indexes indexes) {
+        return shuffle(indexes.values, shared);
+    }
+
+    @Benchmark
+    public int[] perThread(Indexes indexes) {
+        return shuffle(indexes.values, perThread.get());
+    }
+
+    @Benchmark
+    public int[] striped(Indexes indexes) {
+        return shuffle(indexes.values, striped.current());
+    }
+
+    @Benchmark
+    public int[] virtualPerThread() throws InterruptedException {
+        return onVirtualThread(() -> perThread.get());
+    }
+
+    @Benchmark
+    public int[] virtualStriped() throws InterruptedException {
+        return onVirtualThread(() -> striped.current());
+    }
+
+    private static int[] onVirtualThread(Supplier<SecureRandom> random)
+            throws InterruptedException {
+        int[] values = new int[SHUFFLE_SIZE];
+        Thread.ofVirtual().start(() -> shuffle(values, random.get())).join();
+        return values;
+    }
+
+    private static SecureRandom newInstance(String algorithm) {
+        try {
+            return SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static int[] shuffle(int[] values, SecureRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,256 @@
+package com.dperalta.secret_santa.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Harness de carga contra una instancia local de la API (perfil loadtest, con o sin vthreads).
+ * Levanta el SMTP falso, crea sorteos y corre un escenario en lazo cerrado con {@code concurrency}
+ * clientes durante {@code duration}; al final imprime throughput y latencias p50/p90/p99.
+ * <p>
+ * Escenarios:
+ * <ul>
+ *   <li>{@code read}: GET /{code}, /{code}/details?summary=true y /{code}/participants sobre sorteos existentes</li>
+ *   <li>{@code execute}: POST /{code}/execute sobre sorteos nuevos (bloquea en MySQL y en el SMTP falso)</li>
+ * </ul>
+ * Uso: {@code ./mvnw -Ploadtest compile exec:exec -Dloadtest.args="--scenario=execute --concurrency=200"}
+ */
+public final class LoadTestRunner {
+
+    private static final Pattern CODE = Pattern.compile("\"code\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client;
+
+    private LoadTestRunner(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8080") + "/api/v1/draws";
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadTestRunner(options).run();
+    }
+
+    private void run() throws Exception {
+        String scenario = option("scenario", "read");
+        int concurrency = Integer.parseInt(option("concurrency", "100"));
+        Duration warmup = Duration.parse("PT" + option("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + option("duration", "30s"));
+        int draws = Integer.parseInt(option("draws", "read".equals(scenario) ? "50" : "2000"));
+        int participants = Integer.parseInt(option("participants", "20"));
+        int smtpPort = Integer.parseInt(option("smtp-port", "2525"));
+        Duration smtpLatency = Duration.parse("PT" + option("smtp-latency", "0.02s"));
+
+        try (FakeSmtpServer smtp = new FakeSmtpServer(smtpPort, smtpLatency)) {
+            System.out.printf("Fake SMTP on port %d (latency %d ms)%n", smtpPort, smtpLatency.toMillis());
+            System.out.printf("Creating %d draws with %d participants...%n", draws, participants);
+            Queue<String> codes = createDraws(draws, participants, concurrency);
+            List<String> readCodes = List.copyOf(codes);
+
+            Operation operation = switch (scenario) {
+                case "read" -> () -> read(readCodes);
+                case "execute" -> () -> {
+                    String code = codes.poll();
+                    return code == null ? -1 : send(post("/" + code + "/execute", ""));
+                };
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            };
+
+            System.out.printf("Warming up %s for %ds...%n", scenario, warmup.toSeconds());
+            runPhase(operation, concurrency, warmup);
+            System.out.printf("Measuring %s with %d clients for %ds...%n", scenario, concurrency, duration.toSeconds());
+            long smtpBefore = smtp.messagesReceived();
+            Result result = runPhase(operation, concurrency, duration);
+            result.print(scenario, concurrency, smtp.messagesReceived() - smtpBefore);
+        }
+    }
+
+    private Queue<String> createDraws(int draws, int participants, int concurrency) {
+        Queue<String> codes = new ConcurrentLinkedQueue<>();
+        AtomicLong next = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < Math.min(concurrency, draws); worker++) {
+                executor.execute(() -> {
+                    long id;
+                    while ((id = next.getAndIncrement()) < draws) {
+                        try {
+                            HttpResponse<String> response = client.send(
+                                    post("", drawJson(id, participants)), HttpResponse.BodyHandlers.ofString());
+                            Matcher matcher = CODE.matcher(response.body());
+                            if (response.statusCode() == 201 && matcher.find()) {
+                                codes.add(matcher.group(1));
+                            } else {
+                                System.err.println("Create draw failed: " + response.statusCode() + " " + response.body());
+                            }
+                        } catch (Exception e) {
+                            System.err.println("Create draw failed: " + e.getMessage());
+                        }
+                    }
+                });
+            }
+        }
+        return codes;
+    }
+
+    private int read(List<String> codes) throws Exception {
+        String code = codes.get(ThreadLocalRandom.current().nextInt(codes.size()));
+        String path = switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> "/" + code;
+            case 1 -> "/" + code + "/details?summary=true";
+            default -> "/" + code + "/participants?limit=50";
+        };
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Lazo cerrado: cada cliente manda la siguiente request cuando recibe la respuesta anterior.
+     */
+    private Result runPhase(Operation operation, int concurrency, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        int status;
+                        try {
+                            status = operation.call();
+                        } catch (Exception e) {
+                            status = 0;
+                        }
+                        if (status < 0) {
+                            return;   // Sin más trabajo (escenario execute)
+                        }
+                        if (status == 0 || status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.record(System.nanoTime() - t0);
+                    }
+                });
+            }
+        }
+        return Result.of(recorders, errors.get(), System.nanoTime() - start);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private static String drawJson(long id, int participants) {
+        StringBuilder json = new StringBuilder()
+                .append("{\"name\":\"Load test draw ").append(id).append("\",\"participants\":[");
+        for (int i = 0; i < participants; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"Participant ").append(i)
+                    .append("\",\"email\":\"p").append(i).append(".d").append(id).append("@loadtest.local\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * @return status HTTP, o -1 si no queda trabajo
+         */
+        int call() throws Exception;
+    }
+
+    /**
+     * Latencias de un cliente (un solo hilo escribe).
+     */
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+
+    private record Result(long[] sorted, long errors, long elapsedNanos) {
+
+        static Result of(List<LatencyRecorder> recorders, long errors, long elapsedNanos) {
+            int total = 0;
+            for (LatencyRecorder recorder : recorders) {
+                total += recorder.size;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (LatencyRecorder recorder : recorders) {
+                System.arraycopy(recorder.values, 0, all, offset, recorder.size);
+                offset += recorder.size;
+            }
+            Arrays.sort(all);
+            return new Result(all, errors, elapsedNanos);
+        }
+
+        void print(String scenario, int concurrency, long smtpMessages) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.println();
+            System.out.printf("Scenario:    %s (%d clients)%n", scenario, concurrency);
+            System.out.printf("Requests:    %d (%d errors)%n", sorted.length, errors);
+            System.out.printf("Throughput:  %.1f req/s%n", sorted.length / seconds);
+            System.out.printf("Latency ms:  p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(1.0));
+            System.out.printf("SMTP:        %d messages%n", smtpMessages);
+        }
+
+        private double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.dperalta.secret_santa.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache en memoria de las lecturas de sorteos.
+ * Las evicciones se aplican después del commit (TransactionAwareCacheManagerProxy), así una
+ * lectura concurrente no vuelve a cachear el estado previo a la transacción.
+ * Las estadísticas (hit/miss) se registran a mano sobre los caches de Caffeine, porque el proxy
+ * transaccional oculta el tipo de cache al registro automático de Spring Boot. Se exponen en
+ * /actuator/metrics/cache.gets, /actuator/prometheus y /actuator/caches.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DRAWS = "draws";
+    public static final String DRAW_DETAILS = "drawDetails";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.draws.maximum-size:10000}") long maximumSize,
+                                     @Value("${app.cache.draws.ttl:10m}") Duration ttl,
+                                     MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(DRAWS, DRAW_DETAILS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        for (String name : cacheManager.getCacheNames()) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), name);
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
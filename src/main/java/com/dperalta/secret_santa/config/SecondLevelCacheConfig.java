@@ -0,0 +1,71 @@
+package com.dperalta.secret_santa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nivel de Hibernate (opt-in con JPA_SECOND_LEVEL_CACHE=true).
+ * <p>
+ * Regiones locales en Caffeine vía JCache, cada una con su tope de entradas: Draw, su colección
+ * de participantes, Participant y el natural id (code → id) de Draw. Hibernate no crea regiones
+ * por su cuenta (missing_cache_strategy=fail), así ninguna queda sin límite.
+ * Las entradas se guardan por referencia (Hibernate ya cachea su propio estado desensamblado).
+ * Las estadísticas por región se exponen en /actuator/metrics/hibernate.second.level.cache.requests.
+ * <p>
+ * Sólo respalda las cargas del grafo como entidades (executeDraw y resendNotifications). Los endpoints
+ * de lectura usan proyecciones y los caches de respuestas de Spring, que no pasan por estas regiones.
+ * <p>
+ * Las escrituras que no pasan por Hibernate (UPDATE/INSERT por JDBC) invalidan sus regiones a mano,
+ * ver {@link com.dperalta.secret_santa.service.impl.DrawEntityCache}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String DRAW_REGION = "secret-santa.draw";
+    public static final String DRAW_CODE_REGION = "secret-santa.draw.code";
+    public static final String DRAW_PARTICIPANTS_REGION = "secret-santa.draw.participants";
+    public static final String PARTICIPANT_REGION = "secret-santa.participant";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${app.cache.second-level.draws.maximum-size:10000}") long drawsMaximumSize,
+            @Value("${app.cache.second-level.participants.maximum-size:200000}") long participantsMaximumSize,
+            @Value("${app.cache.second-level.ttl:10m}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        cacheManager.createCache(DRAW_REGION, region(drawsMaximumSize, ttl));
+        cacheManager.createCache(DRAW_CODE_REGION, region(drawsMaximumSize, ttl));
+        cacheManager.createCache(DRAW_PARTICIPANTS_REGION, region(drawsMaximumSize, ttl));
+        cacheManager.createCache(PARTICIPANT_REGION, region(participantsMaximumSize, ttl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -4,7 +4,18 @@ import com.dperalta.secret_santa.dto.request.CreateDrawRequest;
 import com.dperalta.secret_santa.dto.response.AssignmentResponse;
 import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
 import com.dperalta.secret_santa.dto.response.DrawResponse;
+import com.dperalta.secret_santa.dto.response.ImportResultResponse;
+import com.dperalta.secret_santa.dto.response.ParticipantPageResponse;
+import com.dperalta.secret_santa.exception.DrawNotFoundException;
+import com.dperalta.secret_santa.exception.TooManySubscribersException;
+import com.dperalta.secret_santa.repository.projection.DrawVersion;
+import com.dperalta.secret_santa.service.DrawEvent;
 import com.dperalta.secret_santa.service.DrawService;
+import com.dperalta.secret_santa.service.ImportFormat;
+import com.dperalta.secret_santa.service.ParticipantImportService;
+import com.dperalta.secret_santa.service.impl.DrawCacheEvictor;
+import com.dperalta.secret_santa.service.impl.DrawEventBus;
+import com.dperalta.secret_santa.service.impl.DrawMetrics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,9 +26,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -27,6 +49,10 @@ import org.springframework.web.bind.annotation.*;
 public class DrawController {
 
     private final DrawService drawService;
+    private final ParticipantImportService participantImportService;
+    private final DrawEventBus drawEventBus;
+    private final DrawMetrics drawMetrics;
+    private final DrawCacheEvictor drawCacheEvictor;
 
     @PostMapping
     @Operation(summary = "Create a new Secret Santa draw",
@@ -41,7 +67,7 @@ public class DrawController {
             @Valid @RequestBody CreateDrawRequest request) {
 
         log.info("Creating new draw: {}", request.getName());
-        DrawResponse response = drawService.createDraw(request);
+        DrawResponse response = drawMetrics.recordCreate(() -> drawService.createDraw(request));
         log.info("Draw created successfully with code: {}", response.getCode());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -53,34 +79,98 @@ public class DrawController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Draw found",
                     content = @Content(schema = @Schema(implementation = DrawResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Draw not modified since the given ETag/date"),
             @ApiResponse(responseCode = "404", description = "Draw not found")
     })
     public ResponseEntity<DrawResponse> getDrawByCode(
             @Parameter(description = "Unique draw code", example = "ABC123")
-            @PathVariable String code) {
+            @PathVariable String code,
+            WebRequest webRequest) {
 
         log.info("Fetching draw with code: {}", code);
-        DrawResponse response = drawService.getDrawByCode(code);
-
-        return ResponseEntity.ok(response);
+        return conditional(code, webRequest, () -> drawService.getDrawByCode(code), DrawResponse::getUpdatedAt);
     }
 
     @GetMapping("/{code}/details")
     @Operation(summary = "Get draw details with participants",
-            description = "Retrieves complete draw information including all participants")
+            description = "Retrieves complete draw information including all participants. "
+                    + "With summary=true only the participant count is returned; use /participants to page them.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Draw details retrieved",
                     content = @Content(schema = @Schema(implementation = DrawDetailResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Draw not modified since the given ETag/date"),
             @ApiResponse(responseCode = "404", description = "Draw not found")
     })
     public ResponseEntity<DrawDetailResponse> getDrawDetails(
             @Parameter(description = "Unique draw code", example = "ABC123")
-            @PathVariable String code) {
+            @PathVariable String code,
 
-        log.info("Fetching draw details for code: {}", code);
-        DrawDetailResponse response = drawService.getDrawDetailByCode(code);
+            @Parameter(description = "Omit the participant list")
+            @RequestParam(defaultValue = "false") boolean summary,
 
-        return ResponseEntity.ok(response);
+            WebRequest webRequest) {
+
+        log.info("Fetching draw details for code: {} (summary: {})", code, summary);
+        return conditional(code, webRequest, () -> summary
+                ? drawService.getDrawDetailSummaryByCode(code)
+                : drawService.getDrawDetailByCode(code), DrawDetailResponse::getUpdatedAt);
+    }
+
+    @GetMapping("/{code}/participants")
+    @Operation(summary = "List draw participants page by page",
+            description = "Returns participants ordered by id. Pass the returned nextCursor as 'after' "
+                    + "to get the next page; nextCursor is null on the last page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Participants page retrieved",
+                    content = @Content(schema = @Schema(implementation = ParticipantPageResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Draw not modified since the given ETag/date"),
+            @ApiResponse(responseCode = "404", description = "Draw not found")
+    })
+    public ResponseEntity<ParticipantPageResponse> getParticipants(
+            @Parameter(description = "Unique draw code", example = "ABC123")
+            @PathVariable String code,
+
+            @Parameter(description = "Cursor: id of the last participant already received")
+            @RequestParam(required = false) Long after,
+
+            @Parameter(description = "Page size (capped by app.participants.max-page-size)", example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+
+            WebRequest webRequest) {
+
+        log.info("Fetching participants for draw: {} after: {}", code, after);
+        return conditional(code, webRequest, () -> drawService.getParticipants(code, after, limit));
+    }
+
+    @GetMapping(value = "/{code}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream draw events",
+            description = "Server-Sent Events: the current status first, then 'status' events on transitions "
+                    + "and one 'notification' event per participant email sent or failed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "404", description = "Draw not found"),
+            @ApiResponse(responseCode = "503", description = "Too many open event streams")
+    })
+    public ResponseEntity<SseEmitter> streamEvents(
+            @Parameter(description = "Unique draw code", example = "ABC123")
+            @PathVariable String code) {
+
+        log.info("Opening event stream for draw: {}", code);
+        // Los errores salen sin cuerpo: el cliente sólo acepta text/event-stream, así que un
+        // ErrorResponse JSON del GlobalExceptionHandler no pasaría la negociación de contenido
+        try {
+            // Única lectura a la base por suscriptor: el estado actual por el índice de code
+            DrawVersion version = drawService.getDrawVersion(code);
+            return ResponseEntity.ok(drawEventBus.subscribe(code, DrawEvent.status(code, version.status())));
+        } catch (DrawNotFoundException e) {
+            log.warn("Event stream rejected: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (TooManySubscribersException e) {
+            log.warn("Event stream rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
     }
 
     @PostMapping("/{code}/execute")
@@ -98,7 +188,7 @@ public class DrawController {
             @PathVariable String code) {
 
         log.info("Executing draw with code: {}", code);
-        DrawResponse response = drawService.executeDraw(code);
+        DrawResponse response = drawMetrics.recordExecute(() -> drawService.executeDraw(code));
         log.info("Draw executed successfully: {}", code);
 
         return ResponseEntity.ok(response);
@@ -144,4 +234,77 @@ public class DrawController {
 
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/{code}/participants/import",
+            consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+    @Operation(summary = "Import participants from CSV or NDJSON",
+            description = "Streams participants into a pending draw. CSV columns: name,email,phone (header optional). "
+                    + "NDJSON: one participant object per line. Invalid or duplicate rows are reported, not fatal.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed",
+                    content = @Content(schema = @Schema(implementation = ImportResultResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Draw not found"),
+            @ApiResponse(responseCode = "409", description = "Draw already executed")
+    })
+    public ResponseEntity<ImportResultResponse> importParticipants(
+            @Parameter(description = "Unique draw code", example = "ABC123")
+            @PathVariable String code,
+
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        log.info("Importing participants into draw: {}", code);
+        ImportResultResponse response = participantImportService.importParticipants(
+                code, body, ImportFormat.fromContentType(contentType));
+        log.info("Participants imported into draw {}: {} imported, {} rejected",
+                code, response.getImported(), response.getRejected());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Responde 304 si el cliente ya tiene la versión actual del sorteo (If-None-Match / If-Modified-Since).
+     * La versión sale de una consulta por el índice de code; el cuerpo sólo se arma si cambió.
+     * no-cache obliga a revalidar en cada poll, y private evita que proxies compartidos lo guarden.
+     */
+    private <T> ResponseEntity<T> conditional(String code, WebRequest webRequest, Supplier<T> body) {
+        return conditional(code, webRequest, body, null);
+    }
+
+    /**
+     * @param updatedAt updated_at de un cuerpo que puede venir del cache; si es anterior a la versión
+     *                  del ETag, el cache quedó atrasado (evicción pendiente o lectura concurrente que lo
+     *                  repobló con datos viejos): se descarta y se relee, para no servir un cuerpo viejo
+     *                  bajo un ETag nuevo
+     */
+    private <T> ResponseEntity<T> conditional(String code, WebRequest webRequest, Supplier<T> body,
+                                              Function<T, LocalDateTime> updatedAt) {
+        DrawVersion version = drawService.getDrawVersion(code);
+        String eTag = version.eTag();
+        long lastModified = version.lastModified();
+        boolean notModified = webRequest.checkNotModified(eTag, lastModified);
+
+        ResponseEntity.BodyBuilder response = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        response.eTag(eTag).cacheControl(CacheControl.noCache().cachePrivate());
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+
+        if (notModified) {
+            return response.build();
+        }
+        T result = body.get();
+        if (updatedAt != null && isBefore(updatedAt.apply(result), version.updatedAt())) {
+            log.debug("Cached response for draw {} is older than its version, reloading", code);
+            drawCacheEvictor.evict(code);
+            result = body.get();
+        }
+        return response.body(result);
+    }
+
+    private static boolean isBefore(LocalDateTime cached, LocalDateTime current) {
+        return cached != null && current != null && cached.isBefore(current);
+    }
+}
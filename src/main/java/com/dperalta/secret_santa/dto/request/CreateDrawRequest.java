@@ -31,8 +31,20 @@ public class CreateDrawRequest {
     @Digits(integer = 8, fraction = 2, message = "Budget limit must have at most 8 digits and 2 decimals")
     private BigDecimal budgetLimit;
 
+    // Evita repetir parejas de los últimos N sorteos en los que participaron ambos
+    @Min(value = 1, message = "History lookback must be at least 1")
+    @Max(value = 50, message = "History lookback must not exceed 50")
+    private Integer historyLookback;
+
     @NotNull(message = "Participants list is required")
     @Size(min = 3, message = "At least 3 participants are required for a secret santa draw")
     @Valid
     private List<ParticipantRequest> participants;
+
+    // Grupos (parejas, familias) cuyos miembros no pueden regalarse entre sí
+    private List<@Size(min = 2, message = "Exclusion groups must have at least 2 members")
+            List<@NotBlank @Email(message = "Exclusion group emails must be valid") String>> exclusionGroups;
+
+    @Valid
+    private List<ExclusionRequest> exclusions;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.dperalta.secret_santa.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exclusión dirigida: el participante giverEmail no puede regalarle a receiverEmail.
+ * Para una exclusión mutua, usar un grupo de exclusión o cargar ambas direcciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExclusionRequest {
+
+    @NotBlank(message = "Giver email is required")
+    @Email(message = "Giver email must be valid")
+    private String giverEmail;
+
+    @NotBlank(message = "Receiver email is required")
+    @Email(message = "Receiver email must be valid")
+    private String receiverEmail;
+}
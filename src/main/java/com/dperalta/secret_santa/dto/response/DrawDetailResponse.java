@@ -1,6 +1,7 @@
 package com.dperalta.secret_santa.dto.response;
 
 import com.dperalta.secret_santa.model.DrawStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +24,9 @@ public class DrawDetailResponse {
     private LocalDateTime drawDate;
     private BigDecimal budgetLimit;
     private DrawStatus status;
+    private Integer participantCount;
+    // Ausente en modo resumen; para sorteos grandes usar el endpoint paginado de participantes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<ParticipantResponse> participants;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
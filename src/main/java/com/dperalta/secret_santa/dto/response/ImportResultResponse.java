@@ -0,0 +1,22 @@
+package com.dperalta.secret_santa.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResultResponse {
+
+    private String drawCode;
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,17 @@
+package com.dperalta.secret_santa.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowError {
+
+    private long row;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.dperalta.secret_santa.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantPageResponse {
+
+    private String drawCode;
+    private List<ParticipantResponse> participants;
+    private int limit;
+    // Id del último participante de la página; se pasa como "after" para pedir la siguiente (null = no hay más)
+    private Long nextCursor;
+}
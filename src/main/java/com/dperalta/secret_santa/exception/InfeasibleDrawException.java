@@ -0,0 +1,7 @@
+package com.dperalta.secret_santa.exception;
+
+public class InfeasibleDrawException extends RuntimeException {
+    public InfeasibleDrawException(String reason) {
+        super("No valid assignment satisfies the exclusion rules: " + reason);
+    }
+}
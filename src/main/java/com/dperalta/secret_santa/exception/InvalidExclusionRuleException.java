@@ -0,0 +1,7 @@
+package com.dperalta.secret_santa.exception;
+
+public class InvalidExclusionRuleException extends RuntimeException {
+    public InvalidExclusionRuleException(String message) {
+        super(message);
+    }
+}
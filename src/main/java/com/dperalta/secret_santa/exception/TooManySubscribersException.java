@@ -0,0 +1,7 @@
+package com.dperalta.secret_santa.exception;
+
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(int maxSubscribers) {
+        super("Event stream subscriber limit reached (" + maxSubscribers + "), try again later");
+    }
+}
@@ -1,8 +1,13 @@
 package com.dperalta.secret_santa.model;
 
+import com.dperalta.secret_santa.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -12,6 +17,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "draws")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.DRAW_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.DRAW_CODE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,6 +31,7 @@ public class Draw {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true, length = 10)
     private String code;
 
@@ -38,12 +47,23 @@ public class Draw {
     @Column(name = "budget_limit", precision = 10, scale = 2)
     private BigDecimal budgetLimit;
 
+    // Cantidad de sorteos compartidos anteriores cuyas parejas no se repiten (null = sin historial)
+    @Column(name = "history_lookback")
+    private Integer historyLookback;
+
+    // Semilla (hex) del sorteo cuando la auditoría está activa; permite reproducir la asignación
+    @Column(name = "random_seed", length = 64)
+    private String randomSeed;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @Builder.Default
     private DrawStatus status = DrawStatus.PENDING;
 
+    // Orden estable: el sorteo trabaja sobre índices de esta lista y debe poder reproducirse
     @OneToMany(mappedBy = "draw", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.DRAW_PARTICIPANTS_REGION)
     @Builder.Default
     private List<Participant> participants = new ArrayList<>();
 
@@ -0,0 +1,8 @@
+package com.dperalta.secret_santa.model;
+
+public enum OutboxStatus {
+    PENDING,     // Esperando ser reclamada por un dispatcher
+    PROCESSING,  // Reclamada por un nodo, envío en curso
+    SENT,        // Email enviado
+    FAILED       // Se agotaron los reintentos
+}
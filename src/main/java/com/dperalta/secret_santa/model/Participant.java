@@ -1,7 +1,10 @@
 package com.dperalta.secret_santa.model;
 
+import com.dperalta.secret_santa.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,6 +17,8 @@ import java.time.LocalDateTime;
                 columnNames = {"draw_id", "email"}
         )
 )
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PARTICIPANT_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +40,10 @@ public class Participant {
     @Column(nullable = false)
     private String email;
 
+    // Columna generada por MySQL (LOWER(email)), sólo lectura
+    @Column(name = "email_normalized", insertable = false, updatable = false)
+    private String emailNormalized;
+
     @Column(length = 50)
     private String phone;
 
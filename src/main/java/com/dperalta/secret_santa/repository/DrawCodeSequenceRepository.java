@@ -0,0 +1,36 @@
+package com.dperalta.secret_santa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Secuencia de códigos de sorteo ({@code draw_code_sequence}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class DrawCodeSequenceRepository {
+
+    // LAST_INSERT_ID(expr) deja el nuevo valor en la conexión: reserva y lectura sin bloquear la fila
+    // más allá del UPDATE
+    private static final String RESERVE_SQL =
+            "UPDATE draw_code_sequence SET next_value = LAST_INSERT_ID(next_value + ?) WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva un bloque de {@code size} valores consecutivos. Debe ejecutarse dentro de una
+     * transacción propia, para que ambas sentencias usen la misma conexión y un rollback
+     * del llamador no devuelva el bloque.
+     *
+     * @return primer valor del bloque reservado
+     */
+    public long reserveBlock(int size) {
+        jdbcTemplate.update(RESERVE_SQL, size);
+        Long end = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        if (end == null) {
+            throw new IllegalStateException("Draw code sequence is not initialized");
+        }
+        return end - size;
+    }
+}
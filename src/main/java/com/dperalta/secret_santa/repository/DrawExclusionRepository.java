@@ -0,0 +1,84 @@
+package com.dperalta.secret_santa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Reglas de exclusión de un sorteo (grupos y pares), identificadas por email normalizado.
+ * Se escriben por lotes JDBC y se leen en streaming, sin entidades.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DrawExclusionRepository {
+
+    private static final String INSERT_GROUP_MEMBER_SQL =
+            "INSERT INTO draw_exclusion_groups (draw_id, group_no, email_normalized) VALUES (?, ?, ?)";
+    private static final String INSERT_PAIR_SQL =
+            "INSERT IGNORE INTO draw_exclusions (draw_id, giver_email_normalized, receiver_email_normalized) VALUES (?, ?, ?)";
+    private static final String INSERT_HISTORY_PAIR_SQL =
+            "INSERT IGNORE INTO draw_history_exclusions (draw_id, giver_email_normalized, receiver_email_normalized) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param groups emails normalizados de cada grupo; el número de grupo es su posición en la lista
+     */
+    public void saveGroups(Long drawId, List<List<String>> groups) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int groupNo = 0; groupNo < groups.size(); groupNo++) {
+            for (String email : groups.get(groupNo)) {
+                rows.add(new Object[]{drawId, groupNo, email});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GROUP_MEMBER_SQL, rows);
+        }
+    }
+
+    /**
+     * @param pairs pares {giver, receiver} de emails normalizados
+     */
+    public void savePairs(Long drawId, List<String[]> pairs) {
+        insertPairs(INSERT_PAIR_SQL, drawId, pairs);
+    }
+
+    /**
+     * Guarda las parejas del historial que se excluyeron al ejecutar el sorteo, para poder reproducirlo.
+     *
+     * @param pairs pares {giver, receiver} de emails normalizados
+     */
+    public void saveHistoryPairs(Long drawId, List<String[]> pairs) {
+        insertPairs(INSERT_HISTORY_PAIR_SQL, drawId, pairs);
+    }
+
+    private void insertPairs(String sql, Long drawId, List<String[]> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(pairs.size());
+        for (String[] pair : pairs) {
+            rows.add(new Object[]{drawId, pair[0], pair[1]});
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    public void forEachGroupMember(Long drawId, ObjIntConsumer<String> consumer) {
+        jdbcTemplate.query("SELECT email_normalized, group_no FROM draw_exclusion_groups WHERE draw_id = ?",
+                rs -> {
+                    consumer.accept(rs.getString(1), rs.getInt(2));
+                }, drawId);
+    }
+
+    public void forEachPair(Long drawId, BiConsumer<String, String> consumer) {
+        jdbcTemplate.query("SELECT giver_email_normalized, receiver_email_normalized FROM draw_exclusions WHERE draw_id = ?",
+                rs -> {
+                    consumer.accept(rs.getString(1), rs.getString(2));
+                }, drawId);
+    }
+}
@@ -2,16 +2,32 @@ package com.dperalta.secret_santa.repository;
 
 import com.dperalta.secret_santa.model.Draw;
 import com.dperalta.secret_santa.model.DrawStatus;
+import com.dperalta.secret_santa.repository.projection.DrawSummary;
+import com.dperalta.secret_santa.repository.projection.DrawVersion;
+import com.dperalta.secret_santa.repository.projection.DrawView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DrawRepository extends JpaRepository<Draw, Long> {
 
+    /**
+     * Espacio de sincronización de los UPDATE nativos que sólo tocan columnas sin mapear (auto_execute_*).
+     * No coincide con ninguna tabla de entidad, así Hibernate no invalida ninguna región del cache L2;
+     * sin espacios declarados, un UPDATE nativo las invalida todas.
+     */
+    String AUTO_EXECUTE_SPACE = "draws_auto_execute";
+
     Optional<Draw> findByCode(String code);
 
     boolean existsByCode(String code);
@@ -20,4 +36,94 @@ public interface DrawRepository extends JpaRepository<Draw, Long> {
 
     @Query("SELECT d FROM Draw d LEFT JOIN FETCH d.participants WHERE d.code = :code")
     Optional<Draw> findByCodeWithParticipants(String code);
-}
\ No newline at end of file
+
+    /**
+     * Resumen del sorteo con COUNT de participantes (usa idx_draw_id, no carga filas de participants).
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.DrawSummary(" +
+            "d.id, d.code, d.name, d.description, d.drawDate, d.budgetLimit, d.status, " +
+            "(SELECT COUNT(p) FROM Participant p WHERE p.draw = d), d.createdAt, d.updatedAt) " +
+            "FROM Draw d WHERE d.code = :code")
+    Optional<DrawSummary> findSummaryByCode(String code);
+
+    /**
+     * Datos del sorteo sin COUNT de participantes, por el índice único de code.
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.DrawView(" +
+            "d.id, d.code, d.name, d.description, d.drawDate, d.budgetLimit, d.status, d.createdAt, d.updatedAt) " +
+            "FROM Draw d WHERE d.code = :code")
+    Optional<DrawView> findViewByCode(String code);
+
+    /**
+     * Versión del sorteo (estado y updatedAt) para ETag/Last-Modified, por el índice único de code.
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.DrawVersion(d.status, d.updatedAt) " +
+            "FROM Draw d WHERE d.code = :code")
+    Optional<DrawVersion> findVersionByCode(String code);
+
+    /**
+     * Marca el sorteo como modificado cuando cambian sus participantes, sólo si sigue PENDING.
+     * Deja bloqueada la fila hasta el fin de la transacción, así no se ejecuta a mitad del cambio.
+     *
+     * @return 1 si el sorteo sigue PENDING, 0 si no existe o ya fue ejecutado
+     */
+    @Modifying
+    @Query("UPDATE Draw d SET d.updatedAt = :now " +
+            "WHERE d.id = :id AND d.status = com.dperalta.secret_santa.model.DrawStatus.PENDING")
+    int touchIfPending(Long id, LocalDateTime now);
+
+    /**
+     * Pasa el sorteo de PENDING a DRAWN en un solo UPDATE condicional. Sólo una transacción
+     * concurrente puede ganar: las demás ven 0 filas afectadas cuando la ganadora confirma.
+     *
+     * @return 1 si esta transacción tomó el sorteo, 0 si no existe o ya no está PENDING
+     */
+    @Modifying
+    @Query("UPDATE Draw d SET d.status = com.dperalta.secret_santa.model.DrawStatus.DRAWN " +
+            "WHERE d.code = :code AND d.status = com.dperalta.secret_santa.model.DrawStatus.PENDING")
+    int markDrawnIfPending(String code);
+
+    /**
+     * Bloquea un lote de sorteos PENDING cuya fecha ya pasó, que no agotaron sus intentos y que no están
+     * reclamados por otro nodo (o cuyo lease venció). Las filas bloqueadas por otro nodo se saltean.
+     * Debe ejecutarse dentro de una transacción.
+     */
+    @Query(value = """
+            SELECT code FROM draws
+            WHERE status = 'PENDING' AND draw_date <= :now
+              AND auto_execute_attempts < :maxAttempts
+              AND (auto_execute_locked_until IS NULL OR auto_execute_locked_until < :now)
+            ORDER BY draw_date
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<String> lockDue(LocalDateTime now, int limit, int maxAttempts);
+
+    /**
+     * Toma el lease de los sorteos reclamados y cuenta el intento. Es bookkeeping interno: fija
+     * updated_at = updated_at para que el ON UPDATE de la columna no rote el ETag del sorteo.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE draws
+            SET auto_execute_locked_until = :lockedUntil, auto_execute_attempts = auto_execute_attempts + 1,
+                updated_at = updated_at
+            WHERE code IN :codes
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = AUTO_EXECUTE_SPACE))
+    int markClaimed(Collection<String> codes, LocalDateTime lockedUntil);
+
+    /**
+     * Deja de reclamar un sorteo cuya ejecución automática no puede funcionar sin cambios
+     * (reglas infactibles, participantes insuficientes). Sigue PENDING para ejecutarlo a mano.
+     * Tampoco cambia updated_at.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE draws SET auto_execute_attempts = :maxAttempts, auto_execute_locked_until = NULL,
+                             updated_at = updated_at
+            WHERE code = :code AND status = 'PENDING'
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = AUTO_EXECUTE_SPACE))
+    int abandonAutoExecute(String code, int maxAttempts);
+}
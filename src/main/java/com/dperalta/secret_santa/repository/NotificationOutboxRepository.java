@@ -0,0 +1,90 @@
+package com.dperalta.secret_santa.repository;
+
+import com.dperalta.secret_santa.model.NotificationOutbox;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Encola una notificación por cada participante asignado del sorteo, en un solo INSERT ... SELECT.
+     * Omite a los ya notificados y a los que tienen una fila PENDING/PROCESSING, así un reenvío
+     * no duplica emails ni deja dos filas del mismo participante en un lote.
+     * Sólo escribe notification_outbox: no invalida las regiones de sorteos y participantes.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_outbox (draw_id, participant_id, status, attempts, available_at, created_at)
+            SELECT p.draw_id, p.id, 'PENDING', 0, :now, :now
+            FROM participants p
+            WHERE p.draw_id = :drawId AND p.assigned_to_id IS NOT NULL AND p.notification_sent = FALSE
+              AND NOT EXISTS (
+                  SELECT 1 FROM notification_outbox o
+                  WHERE o.participant_id = p.id AND o.status IN ('PENDING', 'PROCESSING'))
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_outbox"))
+    int enqueueForDraw(Long drawId, LocalDateTime now);
+
+    /**
+     * Bloquea un lote de filas listas para enviar. Las filas bloqueadas por otro nodo se saltean,
+     * así varios nodos pueden reclamar lotes distintos en paralelo.
+     * Incluye filas PROCESSING cuyo lease venció (nodo caído a mitad de envío) mientras les queden intentos.
+     * Debe ejecutarse dentro de una transacción.
+     */
+    @Query(value = """
+            SELECT id FROM notification_outbox
+            WHERE (status = 'PENDING' AND available_at <= :now)
+               OR (status = 'PROCESSING' AND locked_until < :now AND attempts < :maxAttempts)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockClaimable(LocalDateTime now, int limit, int maxAttempts);
+
+    /**
+     * Marca FAILED las filas PROCESSING cuyo lease venció sin intentos restantes: el envío se cortó
+     * (p. ej. el nodo se cayó) en cada uno de sus intentos, no se vuelve a reclamar.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = com.dperalta.secret_santa.model.OutboxStatus.FAILED, " +
+            "o.lockedUntil = null, o.lastError = 'Lease expired on last attempt' " +
+            "WHERE o.status = com.dperalta.secret_santa.model.OutboxStatus.PROCESSING " +
+            "AND o.lockedUntil < :now AND o.attempts >= :maxAttempts")
+    int failExpired(LocalDateTime now, int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = com.dperalta.secret_santa.model.OutboxStatus.PROCESSING, " +
+            "o.lockedUntil = :lockedUntil, o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int markProcessing(Collection<Long> ids, LocalDateTime lockedUntil);
+
+    @Query("SELECT o FROM NotificationOutbox o " +
+            "JOIN FETCH o.participant p JOIN FETCH p.draw JOIN FETCH p.assignedTo " +
+            "WHERE o.id IN :ids")
+    List<NotificationOutbox> findAllWithParticipants(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = com.dperalta.secret_santa.model.OutboxStatus.SENT, " +
+            "o.sentAt = :sentAt, o.lockedUntil = null, o.lastError = null WHERE o.id IN :ids")
+    int markSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    /**
+     * Devuelve la fila a PENDING para reintentar, o la marca FAILED si ya agotó los intentos.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET " +
+            "o.status = CASE WHEN o.attempts >= :maxAttempts " +
+            "THEN com.dperalta.secret_santa.model.OutboxStatus.FAILED " +
+            "ELSE com.dperalta.secret_santa.model.OutboxStatus.PENDING END, " +
+            "o.availableAt = :retryAt, o.lockedUntil = null, o.lastError = :error WHERE o.id = :id")
+    int markFailed(Long id, String error, LocalDateTime retryAt, int maxAttempts);
+}
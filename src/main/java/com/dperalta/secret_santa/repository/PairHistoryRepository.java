@@ -0,0 +1,79 @@
+package com.dperalta.secret_santa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Historial de parejas giver → receiver entre sorteos ({@code pair_history}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class PairHistoryRepository {
+
+    private static final String RECORD_SQL = """
+            INSERT INTO pair_history (draw_id, giver_email_normalized, receiver_email_normalized, drawn_at)
+            SELECT p.draw_id, p.email_normalized, r.email_normalized, ?
+            FROM participants p
+            JOIN participants r ON r.id = p.assigned_to_id
+            WHERE p.draw_id = ?
+            """;
+
+    /*
+     * Parte de los participantes del sorteo actual (índice draw_id, email_normalized) y trae los sorteos
+     * anteriores de cada giver por idx_pair_history_giver. Para cada otro participante del sorteo busca,
+     * por la PK (draw_id, giver), si también estuvo en ese sorteo: esas filas son los sorteos compartidos
+     * del par. ROW_NUMBER los numera del más reciente al más viejo en una sola pasada, y ese número
+     * menos uno es la antigüedad (0 = el último sorteo compartido). Se devuelven los sorteos compartidos
+     * en los que el giver le regaló al otro, dentro de los últimos N.
+     */
+    private static final String RECENT_PAIRS_SQL = """
+            SELECT giver_email_normalized, receiver_email_normalized, age
+            FROM (
+                SELECT hg.giver_email_normalized,
+                       hr.giver_email_normalized AS receiver_email_normalized,
+                       hg.receiver_email_normalized = hr.giver_email_normalized AS paired,
+                       ROW_NUMBER() OVER (PARTITION BY hg.giver_email_normalized, hr.giver_email_normalized
+                                          ORDER BY hg.drawn_at DESC, hg.draw_id DESC) - 1 AS age
+                FROM participants pg
+                JOIN pair_history hg ON hg.giver_email_normalized = pg.email_normalized
+                JOIN participants pr ON pr.draw_id = pg.draw_id AND pr.email_normalized <> pg.email_normalized
+                JOIN pair_history hr ON hr.draw_id = hg.draw_id AND hr.giver_email_normalized = pr.email_normalized
+                WHERE pg.draw_id = ?
+                  AND hg.draw_id <> pg.draw_id
+            ) shared
+            WHERE paired AND age < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registra las parejas de un sorteo recién ejecutado (las asignaciones ya deben estar escritas).
+     *
+     * @return cantidad de parejas registradas
+     */
+    public int record(Long drawId, LocalDateTime drawnAt) {
+        return jdbcTemplate.update(RECORD_SQL, Timestamp.valueOf(drawnAt), drawId);
+    }
+
+    /**
+     * Recorre las parejas giver → receiver (emails normalizados) del sorteo que ya ocurrieron
+     * en alguno de los últimos {@code lookback} sorteos compartidos por ambos.
+     */
+    public void forEachRecentPair(Long drawId, int lookback, RecentPairConsumer consumer) {
+        jdbcTemplate.query(RECENT_PAIRS_SQL, rs -> {
+            consumer.accept(rs.getString(1), rs.getString(2), rs.getInt(3));
+        }, drawId, lookback);
+    }
+
+    @FunctionalInterface
+    public interface RecentPairConsumer {
+        /**
+         * @param age cantidad de sorteos compartidos posteriores a la pareja (0 = el más reciente)
+         */
+        void accept(String giverEmail, String receiverEmail, int age);
+    }
+}
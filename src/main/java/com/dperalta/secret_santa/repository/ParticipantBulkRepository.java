@@ -0,0 +1,88 @@
+package com.dperalta.secret_santa.repository;
+
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.utils.DrawAssignment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Escrituras masivas de participantes por JDBC.
+ * <p>
+ * Participant usa IDENTITY, con lo que Hibernate no agrupa los INSERT. Acá se envían lotes con
+ * {@link JdbcTemplate#batchUpdate}; con {@code rewriteBatchedStatements=true} en la URL de MySQL
+ * cada lote viaja como un único INSERT multi-fila.
+ * Participa de la transacción JPA activa (misma conexión).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParticipantBulkRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO participants (draw_id, name, email, phone, notification_sent) VALUES (?, ?, ?, ?, FALSE)";
+
+    private static final String UPDATE_ASSIGNMENT_SQL =
+            "UPDATE participants SET assigned_to_id = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.draw.insert-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Inserta los participantes de un sorteo ya persistido.
+     * Los ids y created_at los genera la base; las entidades recibidas no se actualizan.
+     *
+     * @param drawId       id del sorteo
+     * @param participants participantes a insertar (sólo name, email y phone)
+     * @return cantidad de filas insertadas
+     */
+    public int insertAll(Long drawId, List<Participant> participants) {
+        int inserted = 0;
+        for (int from = 0; from < participants.size(); from += batchSize) {
+            List<Participant> chunk = participants.subList(from, Math.min(from + batchSize, participants.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, participant) -> {
+                ps.setLong(1, drawId);
+                ps.setString(2, participant.getName());
+                ps.setString(3, participant.getEmail());
+                ps.setString(4, participant.getPhone());
+            });
+            inserted += chunk.size();
+        }
+        return inserted;
+    }
+
+    /**
+     * Persiste el resultado de un sorteo con UPDATE por lotes, sin pasar por el dirty checking de Hibernate.
+     * Los participantes de la asignación deben tener id.
+     *
+     * @param assignment asignaciones del sorteo
+     * @return cantidad de filas actualizadas
+     */
+    public int updateAssignments(DrawAssignment assignment) {
+        int size = assignment.size();
+        for (int from = 0; from < size; from += batchSize) {
+            int offset = from;
+            int count = Math.min(batchSize, size - from);
+            jdbcTemplate.batchUpdate(UPDATE_ASSIGNMENT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, assignment.getReceiver(offset + i).getId());
+                    ps.setLong(2, assignment.getGiver(offset + i).getId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+        return size;
+    }
+}
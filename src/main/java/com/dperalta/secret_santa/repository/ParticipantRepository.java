@@ -1,9 +1,20 @@
 package com.dperalta.secret_santa.repository;
 
 import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.projection.AssignmentView;
+import com.dperalta.secret_santa.repository.projection.ParticipantView;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +28,59 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
     boolean existsByDrawIdAndEmail(Long drawId, String email);
 
     List<Participant> findByDrawIdAndNotificationSentFalse(Long drawId);
+
+    /**
+     * Asignación de un participante en una fila, usando el índice (draw_id, email_normalized).
+     *
+     * @param code            código del sorteo
+     * @param normalizedEmail email en minúsculas
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.AssignmentView(" +
+            "d.name, d.status, p.name, p.email, r.name, r.email) " +
+            "FROM Participant p JOIN p.draw d LEFT JOIN p.assignedTo r " +
+            "WHERE d.code = :code AND p.emailNormalized = :normalizedEmail")
+    Optional<AssignmentView> findAssignment(String code, String normalizedEmail);
+
+    /**
+     * Participantes de un sorteo en orden de id, como proyección (sin entidades gestionadas).
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.ParticipantView(" +
+            "p.id, p.name, p.email, p.phone, p.notificationSent, p.notificationSentAt, p.createdAt) " +
+            "FROM Participant p WHERE p.draw.id = :drawId ORDER BY p.id")
+    List<ParticipantView> findViewsByDrawId(Long drawId);
+
+    /**
+     * Página de participantes por keyset: los siguientes a {@code afterId} en orden de id.
+     * Recorre idx_draw_id (draw_id, id) desde el cursor, sin OFFSET.
+     *
+     * @param code     código del sorteo
+     * @param afterId  id del último participante de la página anterior (0 para la primera)
+     * @param pageable sólo se usa el tamaño de página
+     */
+    @Query("SELECT new com.dperalta.secret_santa.repository.projection.ParticipantView(" +
+            "p.id, p.name, p.email, p.phone, p.notificationSent, p.notificationSentAt, p.createdAt) " +
+            "FROM Participant p WHERE p.draw.code = :code AND p.id > :afterId ORDER BY p.id")
+    List<ParticipantView> findPageByDrawCode(String code, long afterId, Pageable pageable);
+
+    @Query("SELECT p.emailNormalized FROM Participant p " +
+            "WHERE p.draw.id = :drawId AND p.emailNormalized IN :normalizedEmails")
+    List<String> findExistingNormalizedEmails(Long drawId, Collection<String> normalizedEmails);
+
+    /**
+     * Marca las notificaciones como enviadas y actualiza updated_at de sus sorteos (versión para ETag)
+     * en un solo UPDATE multi-tabla. Declara las tablas que toca para que Hibernate invalide sólo
+     * esas regiones del cache L2.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE participants p JOIN draws d ON d.id = p.draw_id
+            SET p.notification_sent = TRUE, p.notification_sent_at = :sentAt, d.updated_at = :sentAt
+            WHERE p.id IN (:ids)
+            """, nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "participants"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "draws")
+    })
+    int markNotificationsSent(Collection<Long> ids, LocalDateTime sentAt);
 }
\ No newline at end of file
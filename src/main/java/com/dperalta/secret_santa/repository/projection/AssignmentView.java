@@ -0,0 +1,17 @@
+package com.dperalta.secret_santa.repository.projection;
+
+import com.dperalta.secret_santa.model.DrawStatus;
+
+/**
+ * Asignación de un participante con los datos del sorteo, en una sola fila.
+ * {@code receiverName} y {@code receiverEmail} son null si el participante todavía no tiene asignación.
+ */
+public record AssignmentView(
+        String drawName,
+        DrawStatus drawStatus,
+        String giverName,
+        String giverEmail,
+        String receiverName,
+        String receiverEmail
+) {
+}
@@ -0,0 +1,24 @@
+package com.dperalta.secret_santa.repository.projection;
+
+import com.dperalta.secret_santa.model.DrawStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Datos de un sorteo con la cantidad de participantes calculada en la base,
+ * sin cargar la colección de participantes.
+ */
+public record DrawSummary(
+        Long id,
+        String code,
+        String name,
+        String description,
+        LocalDateTime drawDate,
+        BigDecimal budgetLimit,
+        DrawStatus status,
+        long participantCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
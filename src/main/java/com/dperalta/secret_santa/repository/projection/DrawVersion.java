@@ -0,0 +1,37 @@
+package com.dperalta.secret_santa.repository.projection;
+
+import com.dperalta.secret_santa.model.DrawStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Versión de un sorteo para peticiones condicionales: estado y última modificación,
+ * leídos por el índice único de code sin cargar participantes.
+ * <p>
+ * {@code updatedAt} cambia con cualquier cambio del sorteo o de sus participantes
+ * (el import y las marcas de notificación también lo actualizan).
+ */
+public record DrawVersion(
+        DrawStatus status,
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * ETag fuerte: estado + updated_at en microsegundos (la precisión de la columna).
+     */
+    public String eTag() {
+        long micros = updatedAt == null
+                ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + status.name() + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    /**
+     * Última modificación en epoch millis, o -1 si se desconoce.
+     */
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
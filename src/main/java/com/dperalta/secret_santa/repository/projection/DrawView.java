@@ -0,0 +1,23 @@
+package com.dperalta.secret_santa.repository.projection;
+
+import com.dperalta.secret_santa.model.DrawStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Datos de un sorteo sin la cantidad de participantes, para cuando quien llama ya trae la lista
+ * (así no se paga el COUNT de {@link DrawSummary}).
+ */
+public record DrawView(
+        Long id,
+        String code,
+        String name,
+        String description,
+        LocalDateTime drawDate,
+        BigDecimal budgetLimit,
+        DrawStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
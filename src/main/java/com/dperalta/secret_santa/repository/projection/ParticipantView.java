@@ -0,0 +1,18 @@
+package com.dperalta.secret_santa.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos públicos de un participante leídos directo de la consulta, sin entidad gestionada
+ * (ni snapshot para dirty checking ni proxies de draw/assignedTo).
+ */
+public record ParticipantView(
+        Long id,
+        String name,
+        String email,
+        String phone,
+        Boolean notificationSent,
+        LocalDateTime notificationSentAt,
+        LocalDateTime createdAt
+) {
+}
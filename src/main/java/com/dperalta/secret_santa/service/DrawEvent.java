@@ -0,0 +1,35 @@
+package com.dperalta.secret_santa.service;
+
+import com.dperalta.secret_santa.model.DrawStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de un sorteo para los suscriptores de {@code GET /{code}/events}.
+ *
+ * @param type          tipo de evento ({@link #STATUS} o {@link #NOTIFICATION}), también es el nombre del evento SSE
+ * @param drawCode      código del sorteo
+ * @param status        estado del sorteo (eventos STATUS)
+ * @param participantId participante notificado (eventos NOTIFICATION)
+ * @param email         email notificado (eventos NOTIFICATION)
+ * @param success       resultado del envío (eventos NOTIFICATION)
+ * @param error         error del envío, si falló
+ * @param at            momento del evento
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DrawEvent(String type, String drawCode, DrawStatus status, Long participantId, String email,
+                        Boolean success, String error, LocalDateTime at) {
+
+    public static final String STATUS = "status";
+    public static final String NOTIFICATION = "notification";
+
+    public static DrawEvent status(String drawCode, DrawStatus status) {
+        return new DrawEvent(STATUS, drawCode, status, null, null, null, null, LocalDateTime.now());
+    }
+
+    public static DrawEvent notification(String drawCode, NotificationResult result) {
+        return new DrawEvent(NOTIFICATION, drawCode, null, result.participantId(), result.email(),
+                result.success(), result.error(), LocalDateTime.now());
+    }
+}
@@ -4,6 +4,8 @@ import com.dperalta.secret_santa.dto.request.CreateDrawRequest;
 import com.dperalta.secret_santa.dto.response.AssignmentResponse;
 import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
 import com.dperalta.secret_santa.dto.response.DrawResponse;
+import com.dperalta.secret_santa.dto.response.ParticipantPageResponse;
+import com.dperalta.secret_santa.repository.projection.DrawVersion;
 
 public interface DrawService {
 
@@ -23,6 +25,15 @@ public interface DrawService {
      */
     DrawResponse getDrawByCode(String code);
 
+    /**
+     * Obtiene la versión de un sorteo (estado y última modificación) sin cargar participantes.
+     * Se usa para responder 304 Not Modified en las lecturas.
+     *
+     * @param code código del sorteo
+     * @return versión del sorteo
+     */
+    DrawVersion getDrawVersion(String code);
+
     /**
      * Obtiene información detallada de un sorteo incluyendo participantes.
      *
@@ -31,6 +42,24 @@ public interface DrawService {
      */
     DrawDetailResponse getDrawDetailByCode(String code);
 
+    /**
+     * Obtiene el detalle de un sorteo sin la lista de participantes (sólo la cantidad).
+     *
+     * @param code código del sorteo
+     * @return detalle del sorteo en modo resumen
+     */
+    DrawDetailResponse getDrawDetailSummaryByCode(String code);
+
+    /**
+     * Obtiene una página de participantes ordenada por id (paginación por keyset).
+     *
+     * @param code    código del sorteo
+     * @param afterId cursor: id del último participante ya recibido (null para la primera página)
+     * @param limit   tamaño de página
+     * @return página de participantes con el cursor de la siguiente
+     */
+    ParticipantPageResponse getParticipants(String code, Long afterId, int limit);
+
     /**
      * Ejecuta el sorteo (asigna amigos invisibles).
      *
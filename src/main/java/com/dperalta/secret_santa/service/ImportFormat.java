@@ -0,0 +1,22 @@
+package com.dperalta.secret_santa.service;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    CSV,     // text/csv: name,email,phone (header opcional)
+    NDJSON;  // application/x-ndjson: un objeto ParticipantRequest por línea
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static ImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+            return CSV;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
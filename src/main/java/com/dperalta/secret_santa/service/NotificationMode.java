@@ -0,0 +1,10 @@
+package com.dperalta.secret_santa.service;
+
+/**
+ * Modo de envío de las notificaciones de un sorteo ({@code app.notifications.mode}).
+ */
+public enum NotificationMode {
+    SYNC,    // Envío secuencial dentro de la transacción del sorteo
+    ASYNC,   // Envío en virtual threads después del commit, sin persistencia intermedia
+    OUTBOX   // Se encola en notification_outbox y lo envía el dispatcher programado
+}
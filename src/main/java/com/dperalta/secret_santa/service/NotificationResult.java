@@ -0,0 +1,20 @@
+package com.dperalta.secret_santa.service;
+
+/**
+ * Resultado del envío de la notificación a un participante.
+ *
+ * @param participantId id del participante notificado
+ * @param email         email al que se envió
+ * @param success       true si el envío fue exitoso
+ * @param error         mensaje de error si falló, null si fue exitoso
+ */
+public record NotificationResult(Long participantId, String email, boolean success, String error) {
+
+    public static NotificationResult sent(Long participantId, String email) {
+        return new NotificationResult(participantId, email, true, null);
+    }
+
+    public static NotificationResult failed(Long participantId, String email, String error) {
+        return new NotificationResult(participantId, email, false, error);
+    }
+}
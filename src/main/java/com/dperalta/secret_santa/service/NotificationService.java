@@ -1,22 +1,21 @@
 package com.dperalta.secret_santa.service;
 
-import com.dperalta.secret_santa.model.Draw;
 import com.dperalta.secret_santa.model.Participant;
 
-public interface NotificationService {
+import java.util.List;
 
-    /**
-     * Envía notificación de asignación a un participante.
-     *
-     * @param giver    participante que da el regalo
-     * @param receiver participante que recibe el regalo
-     */
-    void sendAssignment(Participant giver, Participant receiver);
+/**
+ * Envío de notificaciones. Las implementaciones no modifican las entidades: quien llama persiste
+ * notification_sent a partir de los resultados (updates por lote).
+ */
+public interface NotificationService {
 
     /**
-     * Envía notificaciones a todos los participantes de un sorteo.
+     * Envía las asignaciones de varios participantes reutilizando la conexión SMTP
+     * (un transporte por lote en lugar de uno por email).
      *
-     * @param draw sorteo
+     * @param givers participantes con asignación
+     * @return un resultado por participante, en el mismo orden
      */
-    void sendAllAssignments(Draw draw);
+    List<NotificationResult> sendAssignments(List<Participant> givers);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.dperalta.secret_santa.service;
+
+import com.dperalta.secret_santa.dto.response.ImportResultResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ParticipantImportService {
+
+    /**
+     * Importa participantes a un sorteo pendiente leyendo el cuerpo fila por fila.
+     * Cada fila se valida y deduplica al llegar; las filas válidas se insertan en lotes de tamaño fijo,
+     * por lo que la memoria usada no depende del tamaño del archivo.
+     *
+     * @param code   código del sorteo
+     * @param input  cuerpo de la petición (CSV o NDJSON, UTF-8)
+     * @param format formato del cuerpo
+     * @return resumen con los errores por fila
+     */
+    ImportResultResponse importParticipants(String code, InputStream input, ImportFormat format) throws IOException;
+}
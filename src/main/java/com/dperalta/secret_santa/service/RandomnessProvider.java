@@ -0,0 +1,34 @@
+package com.dperalta.secret_santa.service;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fuente de aleatoriedad de los sorteos.
+ * <p>
+ * En modo normal se usa un DRBG de un conjunto fijo compartido entre hilos. Con auditoría activa, cada
+ * sorteo usa una semilla propia (que se guarda con el sorteo) y un generador determinista: con la misma
+ * semilla, los mismos participantes en el mismo orden y las mismas reglas (incluidas las parejas del
+ * historial aplicadas, que se guardan en draw_history_exclusions), la asignación se reproduce exactamente.
+ */
+public interface RandomnessProvider {
+
+    /**
+     * Generador para el hilo actual. Es thread-safe: puede estar compartido con otros hilos.
+     */
+    RandomGenerator current();
+
+    /**
+     * Indica si cada sorteo debe registrar una semilla reproducible.
+     */
+    boolean isAuditEnabled();
+
+    /**
+     * Semilla nueva e impredecible para un sorteo auditable.
+     */
+    byte[] newSeed();
+
+    /**
+     * Generador determinista a partir de una semilla de {@link #newSeed()}.
+     */
+    RandomGenerator seeded(byte[] seed);
+}
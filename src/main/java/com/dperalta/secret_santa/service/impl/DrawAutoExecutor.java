@@ -0,0 +1,195 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.dto.response.DrawResponse;
+import com.dperalta.secret_santa.exception.DrawAlreadyExecutedException;
+import com.dperalta.secret_santa.exception.InfeasibleDrawException;
+import com.dperalta.secret_santa.exception.InsufficientParticipantsException;
+import com.dperalta.secret_santa.repository.DrawRepository;
+import com.dperalta.secret_santa.service.DrawService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ejecuta automáticamente los sorteos PENDING cuya {@code drawDate} ya pasó.
+ * <p>
+ * Cada ciclo reclama lotes con {@code SELECT ... FOR UPDATE SKIP LOCKED} y un lease en
+ * {@code auto_execute_locked_until}, así cada nodo toma sorteos distintos. Sólo se reclaman
+ * tantos sorteos como workers libres ({@code app.draw.auto-execute.workers}); el resto queda
+ * en la base para el siguiente lote o para otro nodo.
+ * <p>
+ * Cada claim cuenta un intento; tras {@code max-attempts} fallos el sorteo deja de reclamarse.
+ * Los errores que no se arreglan reintentando (reglas infactibles, participantes insuficientes)
+ * agotan los intentos de una vez. En ambos casos queda PENDING para revisarlo y ejecutarlo a mano.
+ * <p>
+ * Apagado por defecto: al activarlo se ejecutan (y notifican) todos los PENDING con fecha vencida.
+ * <p>
+ * Métricas: {@code draws.auto_execute.lag} (demora entre drawDate y el inicio de la ejecución),
+ * {@code draws.auto_execute.duration}, {@code draws.auto_execute.executions} por outcome
+ * (executed / skipped / failed / abandoned) y {@code draws.auto_execute.in_flight}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.draw.auto-execute.enabled", havingValue = "true")
+public class DrawAutoExecutor {
+
+    private final DrawService drawService;
+    private final DrawMetrics drawMetrics;
+    private final DrawRepository drawRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer lagTimer;
+    private final Timer durationTimer;
+    private final Counter executedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Counter abandonedCounter;
+
+    public DrawAutoExecutor(DrawService drawService,
+                            DrawMetrics drawMetrics,
+                            DrawRepository drawRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.draw.auto-execute.workers:8}") int workers,
+                            @Value("${app.draw.auto-execute.batch-size:100}") int batchSize,
+                            @Value("${app.draw.auto-execute.lease-seconds:300}") long leaseSeconds,
+                            @Value("${app.draw.auto-execute.max-attempts:3}") int maxAttempts) {
+        this.drawService = drawService;
+        this.drawMetrics = drawMetrics;
+        this.drawRepository = drawRepository;
+        this.transactionTemplate = transactionTemplate;
+        int poolSize = Math.max(1, workers);
+        this.permits = new Semaphore(poolSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        this.lagTimer = Timer.builder("draws.auto_execute.lag")
+                .description("Delay between a draw's drawDate and the start of its automatic execution")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("draws.auto_execute.duration")
+                .description("Time spent executing a draw automatically")
+                .register(meterRegistry);
+        this.executedCounter = executions(meterRegistry, "executed");
+        this.skippedCounter = executions(meterRegistry, "skipped");
+        this.failedCounter = executions(meterRegistry, "failed");
+        this.abandonedCounter = executions(meterRegistry, "abandoned");
+        Gauge.builder("draws.auto_execute.in_flight", permits, p -> poolSize - p.availablePermits())
+                .description("Draws currently being executed automatically on this node")
+                .register(meterRegistry);
+    }
+
+    private static Counter executions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("draws.auto_execute.executions")
+                .description("Automatically executed draws by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.draw.auto-execute.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            while (true) {
+                // Esperar al menos un worker libre y tomar todos los que estén libres
+                permits.acquire();
+                int capacity = Math.min(1 + permits.drainPermits(), batchSize);
+
+                List<String> codes;
+                try {
+                    codes = claim(capacity);
+                } catch (Exception e) {
+                    permits.release(capacity);
+                    log.error("Error claiming due draws: {}", e.getMessage(), e);
+                    return;
+                }
+
+                permits.release(capacity - codes.size());
+                for (String code : codes) {
+                    executor.execute(() -> execute(code));
+                }
+
+                if (codes.size() < capacity) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimed = transactionTemplate.execute(status -> {
+            List<String> codes = drawRepository.lockDue(now, limit, maxAttempts);
+            if (!codes.isEmpty()) {
+                drawRepository.markClaimed(codes, now.plusSeconds(leaseSeconds));
+            }
+            return codes;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    /**
+     * Ejecuta un sorteo reclamado y libera su worker. Si falla, el sorteo queda PENDING
+     * y se reintenta cuando vence el lease, mientras le queden intentos.
+     */
+    private void execute(String code) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        try {
+            DrawResponse response = drawMetrics.recordExecute(() -> drawService.executeDraw(code));
+            if (response.getDrawDate() != null) {
+                lagTimer.record(Duration.between(response.getDrawDate(), startedAt));
+            }
+            executedCounter.increment();
+            log.info("Draw {} executed automatically", code);
+        } catch (DrawAlreadyExecutedException e) {
+            // Ejecutado manualmente entre el claim y la ejecución
+            skippedCounter.increment();
+            log.debug("Draw {} was already executed", code);
+        } catch (InfeasibleDrawException | InsufficientParticipantsException e) {
+            abandon(code, e);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Automatic execution of draw {} failed: {}", code, e.getMessage(), e);
+        } finally {
+            durationTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            permits.release();
+        }
+    }
+
+    private void abandon(String code, Exception cause) {
+        abandonedCounter.increment();
+        log.warn("Draw {} needs attention, automatic execution stopped: {}", code, cause.getMessage());
+        try {
+            transactionTemplate.executeWithoutResult(status -> drawRepository.abandonAutoExecute(code, maxAttempts));
+        } catch (Exception e) {
+            log.error("Could not stop automatic execution of draw {}: {}", code, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Invalida las respuestas cacheadas de un sorteo ({@code draws} y {@code drawDetails}) cuando se
+ * escriben cambios fuera de los métodos anotados con {@code @CacheEvict} (envío de notificaciones
+ * en modos ASYNC y OUTBOX, import por lotes) o cuando el controller detecta una respuesta cacheada
+ * más vieja que el ETag.
+ * El cache manager es transaccional: dentro de una transacción la evicción se aplica después del commit.
+ */
+@Component
+public class DrawCacheEvictor {
+
+    private final Cache draws;
+    private final Cache drawDetails;
+
+    public DrawCacheEvictor(CacheManager cacheManager) {
+        this.draws = cacheManager.getCache(CacheConfig.DRAWS);
+        this.drawDetails = cacheManager.getCache(CacheConfig.DRAW_DETAILS);
+    }
+
+    public void evict(String code) {
+        draws.evict(code);
+        drawDetails.evict(code);
+    }
+
+    public void evictAll(Collection<String> codes) {
+        for (String code : codes) {
+            evict(code);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.repository.DrawCodeSequenceRepository;
+import com.dperalta.secret_santa.utils.Base62Feistel;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asigna códigos de sorteo únicos sin consultar la tabla de sorteos.
+ * <p>
+ * Cada nodo reserva bloques de {@code app.draw.code-block-size} valores de {@code draw_code_sequence}
+ * y los reparte en memoria; cada valor se convierte en código con {@link Base62Feistel}.
+ * Como la permutación es biyectiva, dos valores distintos nunca dan el mismo código. Eso vale porque
+ * {@code draws.code} usa utf8mb4_bin (V12): el índice único distingue mayúsculas de minúsculas, y las
+ * búsquedas por código también.
+ * <p>
+ * La clave ({@code app.draw.code-key}) y la longitud ({@code app.draw.code-length}) deben ser estables:
+ * cambiarlas cambia la permutación y los códigos nuevos podrían chocar con los ya emitidos
+ * (los rechazaría el índice único de {@code draws.code}).
+ */
+@Slf4j
+@Component
+public class DrawCodeAllocator {
+
+    private final DrawCodeSequenceRepository sequenceRepository;
+    private final TransactionTemplate reserveTransaction;
+    private final Base62Feistel permutation;
+    private final int blockSize;
+    private final DrawMetrics drawMetrics;
+    private final Timer reserveTimer;
+    // ReentrantLock y no synchronized: la reserva hace I/O y no debe fijar virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long blockEnd;
+
+    public DrawCodeAllocator(DrawCodeSequenceRepository sequenceRepository,
+                             PlatformTransactionManager transactionManager,
+                             DrawMetrics drawMetrics,
+                             @Value("${app.draw.code-key}") String codeKey,
+                             @Value("${app.draw.code-length:6}") int codeLength,
+                             @Value("${app.draw.code-block-size:1000}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.permutation = new Base62Feistel(codeKey.getBytes(StandardCharsets.UTF_8), codeLength);
+        this.blockSize = Math.max(1, blockSize);
+        this.drawMetrics = drawMetrics;
+        this.reserveTimer = drawMetrics.codeBlockReserveTimer();
+
+        // Transacción propia: si la transacción de createDraw hace rollback el bloque sigue reservado
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Siguiente código único.
+     *
+     * @throws IllegalStateException si se agotaron los códigos de la longitud configurada
+     */
+    public String nextCode() {
+        long value;
+        lock.lock();
+        try {
+            if (next >= blockEnd) {
+                reserveBlock();
+            }
+            value = next++;
+        } finally {
+            lock.unlock();
+        }
+
+        if (value >= permutation.domainSize()) {
+            throw new IllegalStateException("Draw code space exhausted; increase app.draw.code-length");
+        }
+        drawMetrics.codeAllocated();
+        return permutation.encode(value);
+    }
+
+    private void reserveBlock() {
+        Long start = reserveTimer.record(
+                () -> reserveTransaction.execute(status -> sequenceRepository.reserveBlock(blockSize)));
+        if (start == null) {
+            throw new IllegalStateException("Could not reserve a draw code block");
+        }
+        next = start;
+        blockEnd = start + blockSize;
+        log.debug("Reserved draw code block [{}, {})", next, blockEnd);
+    }
+}
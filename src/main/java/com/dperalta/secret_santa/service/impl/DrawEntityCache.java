@@ -0,0 +1,108 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.DrawRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Acceso al grafo Draw → participantes a través del cache de segundo nivel de Hibernate, para los
+ * caminos que necesitan entidades (executeDraw, resendNotifications); las lecturas usan proyecciones.
+ * <p>
+ * Con el cache activo, el sorteo se resuelve por natural id (code) y sus participantes por la región
+ * de la colección, sin ir a MySQL en un hit. Con el cache apagado se usa el JOIN FETCH de siempre,
+ * que en frío hace una consulta en lugar de tres.
+ * <p>
+ * Hibernate no ve los UPDATE/INSERT por JDBC ({@link com.dperalta.secret_santa.repository.ParticipantBulkRepository}),
+ * así que quien los emite debe invalidar las regiones afectadas. La invalidación se aplica después del
+ * commit, igual que con los caches de Spring: si fuera antes, una lectura concurrente podría volver a
+ * cachear el estado previo. Los UPDATE masivos JPQL los invalida Hibernate; los nativos declaran sus
+ * tablas con {@code HibernateHints.HINT_NATIVE_SPACES}, porque sin eso Hibernate vacía todas las regiones.
+ */
+@Slf4j
+@Component
+public class DrawEntityCache {
+
+    private static final String PARTICIPANTS_ROLE = Draw.class.getName() + ".participants";
+
+    private final DrawRepository drawRepository;
+    private final Cache cache;
+    private final boolean enabled;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DrawEntityCache(DrawRepository drawRepository, EntityManagerFactory entityManagerFactory) {
+        this.drawRepository = drawRepository;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+        this.enabled = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        log.info("Hibernate second-level cache {}", enabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Sorteo con sus participantes inicializados. Debe llamarse dentro de una transacción.
+     */
+    public Optional<Draw> findByCodeWithParticipants(String code) {
+        if (!enabled) {
+            return drawRepository.findByCodeWithParticipants(code);
+        }
+        Draw draw = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Draw.class)
+                .load(code);
+        if (draw != null) {
+            Hibernate.initialize(draw.getParticipants());
+        }
+        return Optional.ofNullable(draw);
+    }
+
+    /**
+     * Invalida, al confirmar la transacción, la colección de participantes del sorteo
+     * (participantes insertados por JDBC).
+     */
+    public void evictParticipantsAfterCommit(Long drawId) {
+        evictParticipantsAfterCommit(drawId, List.of());
+    }
+
+    /**
+     * Invalida, al confirmar la transacción, la colección de participantes del sorteo y las entradas
+     * de los participantes indicados (participantes modificados por JDBC).
+     */
+    public void evictParticipantsAfterCommit(Long drawId, Collection<Long> participantIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = List.copyOf(participantIds);
+        Runnable eviction = () -> {
+            cache.evictCollectionData(PARTICIPANTS_ROLE, drawId);
+            for (Long id : ids) {
+                cache.evictEntityData(Participant.class, id);
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
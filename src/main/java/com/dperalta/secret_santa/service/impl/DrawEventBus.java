@@ -0,0 +1,206 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.exception.TooManySubscribersException;
+import com.dperalta.secret_santa.service.DrawEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bus de eventos en memoria para los streams SSE de sorteos.
+ * <p>
+ * Cada suscriptor tiene un buffer acotado ({@code app.events.buffer-size}) y un virtual thread que lo
+ * vacía hacia su {@link SseEmitter}; publicar nunca bloquea: si un cliente lento llena su buffer se
+ * descarta el evento más viejo. La request HTTP es asíncrona, así que no retiene hilos de Tomcat.
+ * El total de suscriptores está limitado por {@code app.events.max-subscribers}.
+ * <p>
+ * Los eventos son locales al nodo: un suscriptor sólo ve lo que ejecuta y envía el nodo al que está conectado.
+ */
+@Slf4j
+@Component
+public class DrawEventBus {
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedCounter;
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration heartbeat;
+
+    public DrawEventBus(MeterRegistry meterRegistry,
+                        @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+                        @Value("${app.events.buffer-size:256}") int bufferSize,
+                        @Value("${app.events.timeout:30m}") Duration timeout,
+                        @Value("${app.events.heartbeat:15s}") Duration heartbeat) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+
+        Gauge.builder("draws.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open draw event streams on this node")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("draws.events.dropped")
+                .description("Events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre un stream para un sorteo.
+     *
+     * @param code    código del sorteo
+     * @param initial evento que se envía primero (el estado actual)
+     * @throws TooManySubscribersException si se alcanzó el límite de suscriptores
+     */
+    public SseEmitter subscribe(String code, DrawEvent initial) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException(maxSubscribers);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(code, emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.compute(code, (c, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscriber.offer(initial);
+        executor.execute(subscriber::run);
+        log.debug("Subscribed to events of draw {} ({} open streams)", code, subscriberCount.get());
+        return emitter;
+    }
+
+    /**
+     * Publica un evento a los suscriptores del sorteo. No bloquea.
+     */
+    public void publish(DrawEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.drawCode());
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Publica el evento cuando la transacción actual confirma (o ya, si no hay transacción),
+     * así nadie ve un estado que después hace rollback.
+     */
+    public void publishAfterCommit(DrawEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    /**
+     * Indica si alguien escucha el sorteo, para no armar eventos que nadie va a recibir.
+     */
+    public boolean hasSubscribers(String code) {
+        return subscribers.containsKey(code);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        executor.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final String code;
+        private final SseEmitter emitter;
+        private final BlockingQueue<DrawEvent> buffer;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String code, SseEmitter emitter, BlockingQueue<DrawEvent> buffer) {
+            this.code = code;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        void offer(DrawEvent event) {
+            while (!buffer.offer(event)) {
+                // Cliente lento: se descarta el evento más viejo
+                if (buffer.poll() != null) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+
+        /**
+         * Loop del virtual thread: envía eventos y, si no hay, un comentario de heartbeat
+         * para detectar clientes desconectados.
+         */
+        void run() {
+            try {
+                while (!closed.get()) {
+                    DrawEvent event = buffer.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (closed.get()) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.type()).data(event));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Event stream of draw {} closed: {}", code, e.getMessage());
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(code, (c, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.dperalta.secret_santa.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de las operaciones de sorteo (Micrometer).
+ * <ul>
+ *   <li>{@code draws.create} / {@code draws.execute}: duración por outcome (success o nombre de la excepción).
+ *   Se miden por fuera del proxy transaccional (controller y ejecución automática), así incluyen el commit
+ *   y un fallo al commitear cuenta con su excepción</li>
+ *   <li>{@code draws.algorithm}: tiempo del algoritmo por rango de participantes y si hubo reglas</li>
+ *   <li>{@code draws.code.allocated} / {@code draws.code.block.reserve}: códigos asignados y reservas de bloque</li>
+ * </ul>
+ */
+@Component
+public class DrawMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public DrawMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T recordCreate(Supplier<T> operation) {
+        return record("draws.create", "Time to create a draw with its participants", operation);
+    }
+
+    public <T> T recordExecute(Supplier<T> operation) {
+        return record("draws.execute", "Time to execute a draw (algorithm, assignments and notification dispatch)",
+                operation);
+    }
+
+    /**
+     * Registra el tiempo del algoritmo de sorteo.
+     *
+     * @param participants cantidad de participantes
+     * @param constrained  si el sorteo tenía reglas de exclusión
+     * @param nanos        duración en nanosegundos
+     */
+    public void recordAlgorithm(int participants, boolean constrained, long nanos) {
+        Timer.builder("draws.algorithm")
+                .description("Draw algorithm time by participant-count bucket")
+                .tag("participants", bucket(participants))
+                .tag("constrained", Boolean.toString(constrained))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void codeAllocated() {
+        meterRegistry.counter("draws.code.allocated").increment();
+    }
+
+    public Timer codeBlockReserveTimer() {
+        return Timer.builder("draws.code.block.reserve")
+                .description("Time to reserve a block of draw code sequence values")
+                .register(meterRegistry);
+    }
+
+    private <T> T record(String name, String description, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .description(description)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Rangos por orden de magnitud para mantener acotada la cardinalidad del tag.
+     */
+    static String bucket(int participants) {
+        if (participants < 10) {
+            return "3-9";
+        } else if (participants < 100) {
+            return "10-99";
+        } else if (participants < 1_000) {
+            return "100-999";
+        } else if (participants < 10_000) {
+            return "1000-9999";
+        }
+        return "10000+";
+    }
+}
@@ -1,31 +1,57 @@
 package com.dperalta.secret_santa.service.impl;
 
+import com.dperalta.secret_santa.config.CacheConfig;
 import com.dperalta.secret_santa.dto.request.CreateDrawRequest;
 import com.dperalta.secret_santa.dto.request.ParticipantRequest;
 import com.dperalta.secret_santa.dto.response.AssignmentResponse;
 import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
 import com.dperalta.secret_santa.dto.response.DrawResponse;
+import com.dperalta.secret_santa.dto.response.ParticipantPageResponse;
 import com.dperalta.secret_santa.exception.DrawAlreadyExecutedException;
 import com.dperalta.secret_santa.exception.DrawNotFoundException;
 import com.dperalta.secret_santa.exception.DuplicateParticipantException;
+import com.dperalta.secret_santa.exception.InfeasibleDrawException;
 import com.dperalta.secret_santa.exception.InsufficientParticipantsException;
 import com.dperalta.secret_santa.model.Draw;
 import com.dperalta.secret_santa.model.DrawStatus;
 import com.dperalta.secret_santa.model.Participant;
 import com.dperalta.secret_santa.repository.DrawRepository;
+import com.dperalta.secret_santa.repository.ParticipantBulkRepository;
 import com.dperalta.secret_santa.repository.ParticipantRepository;
+import com.dperalta.secret_santa.repository.projection.AssignmentView;
+import com.dperalta.secret_santa.repository.projection.DrawSummary;
+import com.dperalta.secret_santa.repository.projection.DrawVersion;
+import com.dperalta.secret_santa.repository.projection.DrawView;
+import com.dperalta.secret_santa.repository.projection.ParticipantView;
+import com.dperalta.secret_santa.service.DrawEvent;
 import com.dperalta.secret_santa.service.DrawService;
-import com.dperalta.secret_santa.service.NotificationService;
-import com.dperalta.secret_santa.utils.CodeGenerator;
+import com.dperalta.secret_santa.service.RandomnessProvider;
 import com.dperalta.secret_santa.utils.DrawAlgorithm;
+import com.dperalta.secret_santa.utils.DrawAssignment;
+import com.dperalta.secret_santa.utils.DrawConstraints;
 import com.dperalta.secret_santa.utils.DrawMapper;
+import com.dperalta.secret_santa.utils.DrawRules;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.random.RandomGenerator;
 
 @Slf4j
 @Service
@@ -34,10 +60,24 @@ public class DrawServiceImpl implements DrawService {
 
     private final DrawRepository drawRepository;
     private final ParticipantRepository participantRepository;
-    private final NotificationService notificationService;
+    private final ParticipantBulkRepository participantBulkRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ExclusionRuleService exclusionRuleService;
+    private final DrawCodeAllocator drawCodeAllocator;
+    private final RandomnessProvider randomnessProvider;
+    private final DrawMetrics drawMetrics;
+    private final DrawEventBus drawEventBus;
+    private final DrawEntityCache drawEntityCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.participants.max-page-size:1000}")
+    private int maxPageSize;
 
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.DRAWS, key = "#result.code")
     public DrawResponse createDraw(CreateDrawRequest request) {
         log.info("Creating new draw: {}", request.getName());
 
@@ -46,111 +86,207 @@ public class DrawServiceImpl implements DrawService {
             throw new InsufficientParticipantsException();
         }
 
-        // Generar código único
-        String code = CodeGenerator.generateUnique(drawRepository::existsByCode);
+        // Generar código único (secuencia + permutación con clave, sin consultar la base)
+        String code = drawCodeAllocator.nextCode();
         log.debug("Generated unique code: {}", code);
 
-        // Crear entidad Draw
-        Draw draw = Draw.builder()
-                .code(code)
-                .name(request.getName())
-                .description(request.getDescription())
-                .drawDate(request.getDrawDate())
-                .budgetLimit(request.getBudgetLimit())
-                .status(DrawStatus.PENDING)
-                .participants(new ArrayList<>())
-                .build();
-
-        // Crear y agregar participantes
+        // Validar emails duplicados (hash, O(n))
+        List<Participant> participants = new ArrayList<>(request.getParticipants().size());
+        Set<String> emails = HashSet.newHashSet(request.getParticipants().size());
         for (ParticipantRequest participantReq : request.getParticipants()) {
-            // Validar email duplicado
-            if (draw.getParticipants().stream()
-                    .anyMatch(p -> p.getEmail().equalsIgnoreCase(participantReq.getEmail()))) {
+            if (!emails.add(participantReq.getEmail().trim().toLowerCase(Locale.ROOT))) {
                 throw new DuplicateParticipantException(participantReq.getEmail());
             }
 
-            Participant participant = Participant.builder()
+            participants.add(Participant.builder()
                     .name(participantReq.getName())
                     .email(participantReq.getEmail())
                     .phone(participantReq.getPhone())
                     .notificationSent(false)
-                    .build();
-
-            draw.addParticipant(participant);
+                    .build());
         }
 
+        // Crear entidad Draw (los participantes se insertan por lotes JDBC, no por cascade)
+        Draw draw = Draw.builder()
+                .code(code)
+                .name(request.getName())
+                .description(request.getDescription())
+                .drawDate(request.getDrawDate())
+                .budgetLimit(request.getBudgetLimit())
+                .historyLookback(request.getHistoryLookback())
+                .status(DrawStatus.PENDING)
+                .participants(new ArrayList<>())
+                .build();
+
         // Guardar
         Draw savedDraw = drawRepository.save(draw);
-        log.info("Draw created successfully with code: {}", savedDraw.getCode());
+        int participantCount = participantBulkRepository.insertAll(savedDraw.getId(), participants);
+        drawEntityCache.evictParticipantsAfterCommit(savedDraw.getId());
+        exclusionRuleService.save(savedDraw.getId(), request, emails);
+        log.info("Draw created successfully with code: {} ({} participants)", savedDraw.getCode(), participantCount);
 
-        return DrawMapper.toDrawResponse(savedDraw);
+        return DrawMapper.toDrawResponse(savedDraw, participantCount);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DRAWS, key = "#code")
     public DrawResponse getDrawByCode(String code) {
         log.debug("Fetching draw by code: {}", code);
 
-        Draw draw = drawRepository.findByCode(code)
+        DrawSummary summary = drawRepository.findSummaryByCode(code)
                 .orElseThrow(() -> new DrawNotFoundException(code));
 
-        return DrawMapper.toDrawResponse(draw);
+        return DrawMapper.toDrawResponse(summary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DrawVersion getDrawVersion(String code) {
+        return drawRepository.findVersionByCode(code)
+                .orElseThrow(() -> new DrawNotFoundException(code));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.DRAW_DETAILS, key = "#code")
     public DrawDetailResponse getDrawDetailByCode(String code) {
         log.debug("Fetching draw details by code: {}", code);
 
-        Draw draw = drawRepository.findByCodeWithParticipants(code)
+        // Proyecciones: ni entidades gestionadas ni snapshots para dirty checking.
+        // La cantidad sale de la lista, sin el COUNT del resumen
+        DrawView draw = drawRepository.findViewByCode(code)
                 .orElseThrow(() -> new DrawNotFoundException(code));
+        List<ParticipantView> participants = participantRepository.findViewsByDrawId(draw.id());
 
-        return DrawMapper.toDrawDetailResponse(draw);
+        return DrawMapper.toDrawDetailResponse(draw, participants);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DrawDetailResponse getDrawDetailSummaryByCode(String code) {
+        log.debug("Fetching draw detail summary by code: {}", code);
+
+        DrawSummary summary = drawRepository.findSummaryByCode(code)
+                .orElseThrow(() -> new DrawNotFoundException(code));
+
+        return DrawMapper.toDrawDetailResponse(summary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ParticipantPageResponse getParticipants(String code, Long afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+        log.debug("Fetching participants of draw {} after id {} (limit {})", code, afterId, pageSize);
+
+        // Se pide uno más para saber si hay otra página sin un COUNT
+        List<ParticipantView> rows = participantRepository.findPageByDrawCode(
+                code, afterId == null ? 0L : afterId, PageRequest.ofSize(pageSize + 1));
+
+        if (rows.isEmpty() && !drawRepository.existsByCode(code)) {
+            throw new DrawNotFoundException(code);
+        }
+
+        boolean more = rows.size() > pageSize;
+        List<ParticipantView> page = more ? rows.subList(0, pageSize) : rows;
+        return DrawMapper.toParticipantPageResponse(code, page, pageSize, more);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DRAWS, key = "#code"),
+            @CacheEvict(cacheNames = CacheConfig.DRAW_DETAILS, key = "#code")
+    })
     public DrawResponse executeDraw(String code) {
         log.info("Executing draw for code: {}", code);
 
-        // Buscar draw
-        Draw draw = drawRepository.findByCodeWithParticipants(code)
-                .orElseThrow(() -> new DrawNotFoundException(code));
-
-        // Validar que no haya sido ejecutado
-        if (draw.getStatus() == DrawStatus.DRAWN || draw.getStatus() == DrawStatus.COMPLETED) {
+        // Tomar el sorteo con un UPDATE condicional antes de hacer cualquier trabajo: de dos ejecuciones
+        // concurrentes sólo una lo pasa a DRAWN. La otra queda bloqueada en el lock de la fila hasta que
+        // la ganadora termina su transacción (en modo SYNC eso incluye el envío SMTP) y recién ahí falla
+        // con 409. Si algo falla después del UPDATE, el rollback devuelve el sorteo a PENDING.
+        if (drawRepository.markDrawnIfPending(code) == 0) {
+            if (!drawRepository.existsByCode(code)) {
+                throw new DrawNotFoundException(code);
+            }
             throw new DrawAlreadyExecutedException(code);
         }
 
+        // Buscar draw. Con el cache L2 activo, los participantes salen de la región de la colección
+        // (cargada al crear el sorteo) en lugar de un JOIN FETCH de todas las filas
+        Draw draw = drawEntityCache.findByCodeWithParticipants(code)
+                .orElseThrow(() -> new DrawNotFoundException(code));
+
         // Validar participantes suficientes
         if (draw.getParticipants().size() < 3) {
             throw new InsufficientParticipantsException();
         }
 
         // Realizar sorteo
-        Map<Participant, Participant> assignments = DrawAlgorithm.performDraw(draw.getParticipants());
+        DrawRules rules = exclusionRuleService.load(draw);
+        byte[] seed = null;
+        if (randomnessProvider.isAuditEnabled()) {
+            // Semilla propia del sorteo: con ella, los participantes y las reglas se puede reproducir
+            seed = randomnessProvider.newSeed();
+            draw.setRandomSeed(HexFormat.of().formatHex(seed));
+        }
+        long algorithmStart = System.nanoTime();
+        int lookback = rules.historyLookback();
+        DrawConstraints constraints = rules.constraints(lookback);
+        DrawAssignment assignment;
+        while (true) {
+            // Cada intento arranca de la semilla: un intento infactible consume aleatoriedad antes de
+            // fallar, y la reproducción sólo conoce la semilla y las restricciones del intento final
+            RandomGenerator random = seed != null ? randomnessProvider.seeded(seed) : randomnessProvider.current();
+            try {
+                assignment = DrawAlgorithm.performDraw(draw.getParticipants(), constraints, random);
+                break;
+            } catch (InfeasibleDrawException e) {
+                // El historial es preferencia, no regla: se relaja desde las parejas más viejas.
+                // Sin historial, las reglas fijas son infactibles y el error se propaga
+                if (lookback == 0) {
+                    throw e;
+                }
+                lookback--;
+                log.warn("Draw {} is infeasible with its pairing history, relaxing lookback to {}", code, lookback);
+                constraints = rules.constraints(lookback);
+            }
+        }
+        drawMetrics.recordAlgorithm(assignment.size(), !constraints.isEmpty(), System.nanoTime() - algorithmStart);
+        if (!DrawAlgorithm.isValidDraw(assignment, constraints)) {
+            throw new IllegalStateException("Draw algorithm produced an invalid assignment for draw " + code);
+        }
         log.debug("Draw algorithm completed. Assigning participants...");
 
-        // Asignar resultados
-        for (Map.Entry<Participant, Participant> entry : assignments.entrySet()) {
-            Participant giver = entry.getKey();
-            Participant receiver = entry.getValue();
-
+        // Persistir asignaciones con UPDATE por lotes JDBC y registrar las parejas en el historial
+        participantBulkRepository.updateAssignments(assignment);
+        if (draw.getRandomSeed() != null) {
+            // La semilla sola no alcanza: el historial que se excluyó no se puede recalcular más adelante
+            exclusionRuleService.recordAppliedHistory(draw, rules, lookback);
+        }
+        exclusionRuleService.recordHistory(draw);
+        drawEntityCache.evictParticipantsAfterCommit(draw.getId(),
+                draw.getParticipants().stream().map(Participant::getId).toList());
+
+        // Reflejar en memoria para las notificaciones. Los participantes quedan read-only
+        // para que Hibernate no los compare ni emita un UPDATE por cada uno al hacer flush.
+        Session session = entityManager.unwrap(Session.class);
+        for (int i = 0; i < assignment.size(); i++) {
+            Participant giver = assignment.getGiver(i);
+            Participant receiver = assignment.getReceiver(i);
+
+            session.setReadOnly(giver, true);
             giver.setAssignedTo(receiver);
             log.debug("Assigned: {} -> {}", giver.getEmail(), receiver.getEmail());
         }
 
-        // Actualizar estado
-        draw.setStatus(DrawStatus.DRAWN);
+        // El estado ya quedó en DRAWN con el UPDATE condicional
         Draw savedDraw = drawRepository.save(draw);
+        drawEventBus.publishAfterCommit(DrawEvent.status(code, DrawStatus.DRAWN));
 
-        // Enviar notificaciones (asíncrono idealmente, pero por ahora síncrono)
-        try {
-            notificationService.sendAllAssignments(savedDraw);
-        } catch (Exception e) {
-            log.error("Error sending notifications for draw {}: {}", code, e.getMessage());
-            // No falla el sorteo si las notificaciones fallan
-        }
+        // Enviar notificaciones (en modo asíncrono arrancan después del commit). Un fallo de envío
+        // no falla el sorteo; uno al encolar en el outbox sí, para no confirmar un sorteo sin notificaciones
+        notificationDispatcher.dispatch(savedDraw);
 
         log.info("Draw executed successfully for code: {}", code);
         return DrawMapper.toDrawResponse(savedDraw);
@@ -161,49 +297,57 @@ public class DrawServiceImpl implements DrawService {
     public AssignmentResponse getAssignment(String code, String email) {
         log.debug("Fetching assignment for code: {} and email: {}", code, email);
 
-        Draw draw = drawRepository.findByCodeWithParticipants(code)
-                .orElseThrow(() -> new DrawNotFoundException(code));
+        // Un solo lookup indexado por (código, email normalizado), proyectado en una fila
+        AssignmentView assignment = participantRepository
+                .findAssignment(code, email.trim().toLowerCase(Locale.ROOT))
+                .orElse(null);
 
-        // Verificar que el sorteo fue ejecutado
-        if (draw.getStatus() == DrawStatus.PENDING) {
-            return AssignmentResponse.notDrawnYet(draw.getName());
+        if (assignment == null) {
+            // Sólo en el camino de error se consulta el sorteo para distinguir los casos
+            DrawView draw = drawRepository.findViewByCode(code)
+                    .orElseThrow(() -> new DrawNotFoundException(code));
+
+            return draw.status() == DrawStatus.PENDING
+                    ? AssignmentResponse.notDrawnYet(draw.name())
+                    : AssignmentResponse.notFound();
         }
 
-        // Buscar participante
-        Participant participant = draw.getParticipants().stream()
-                .filter(p -> p.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .orElse(null);
+        // Verificar que el sorteo fue ejecutado
+        if (assignment.drawStatus() == DrawStatus.PENDING) {
+            return AssignmentResponse.notDrawnYet(assignment.drawName());
+        }
 
-        if (participant == null || participant.getAssignedTo() == null) {
+        if (assignment.receiverEmail() == null) {
             return AssignmentResponse.notFound();
         }
 
-        Participant receiver = participant.getAssignedTo();
-
         return AssignmentResponse.builder()
-                .drawName(draw.getName())
-                .giverName(participant.getName())
-                .giverEmail(participant.getEmail())
-                .receiverName(receiver.getName())
-                .receiverEmail(receiver.getEmail())
-                .message("You are the Secret Santa for " + receiver.getName() + "!")
+                .drawName(assignment.drawName())
+                .giverName(assignment.giverName())
+                .giverEmail(assignment.giverEmail())
+                .receiverName(assignment.receiverName())
+                .receiverEmail(assignment.receiverEmail())
+                .message("You are the Secret Santa for " + assignment.receiverName() + "!")
                 .build();
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DRAWS, key = "#code"),
+            @CacheEvict(cacheNames = CacheConfig.DRAW_DETAILS, key = "#code")
+    })
     public void resendNotifications(String code) {
         log.info("Resending notifications for draw: {}", code);
 
-        Draw draw = drawRepository.findByCodeWithParticipants(code)
+        Draw draw = drawEntityCache.findByCodeWithParticipants(code)
                 .orElseThrow(() -> new DrawNotFoundException(code));
 
         if (draw.getStatus() == DrawStatus.PENDING) {
             throw new IllegalStateException("Cannot resend notifications for a draw that hasn't been executed");
         }
 
-        notificationService.sendAllAssignments(draw);
-        log.info("Notifications resent successfully for draw: {}", code);
+        notificationDispatcher.dispatch(draw);
+        log.info("Notifications resend dispatched for draw: {}", code);
     }
 }
\ No newline at end of file
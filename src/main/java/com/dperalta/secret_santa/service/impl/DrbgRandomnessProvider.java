@@ -0,0 +1,60 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.service.RandomnessProvider;
+import com.dperalta.secret_santa.utils.StripedSecureRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * {@link RandomnessProvider} con {@link java.security.SecureRandom} compartidos por franjas de hilos
+ * ({@code app.random.algorithm}, DRBG por defecto).
+ * <p>
+ * Las semillas de auditoría salen del DRBG de la franja, así que no se pueden predecir antes del sorteo.
+ * El generador determinista es L64X256MixRandom: su algoritmo está especificado en el JDK,
+ * por lo que una semilla guardada produce la misma secuencia en cualquier versión.
+ */
+@Slf4j
+@Component
+public class DrbgRandomnessProvider implements RandomnessProvider {
+
+    private static final int SEED_BYTES = 32;
+    private static final RandomGeneratorFactory<RandomGenerator> REPLAYABLE =
+            RandomGeneratorFactory.of("L64X256MixRandom");
+
+    private final StripedSecureRandom random;
+    private final boolean auditEnabled;
+
+    public DrbgRandomnessProvider(@Value("${app.random.algorithm:DRBG}") String algorithm,
+                                  @Value("${app.random.audit-seed:false}") boolean auditEnabled) {
+        this.random = new StripedSecureRandom(algorithm);
+        this.auditEnabled = auditEnabled;
+        log.info("Randomness provider: {} x {} (audit seeds {})",
+                random.stripes(), random.getAlgorithm(), auditEnabled ? "enabled" : "disabled");
+    }
+
+    @Override
+    public RandomGenerator current() {
+        return random.current();
+    }
+
+    @Override
+    public boolean isAuditEnabled() {
+        return auditEnabled;
+    }
+
+    @Override
+    public byte[] newSeed() {
+        byte[] seed = new byte[SEED_BYTES];
+        random.current().nextBytes(seed);
+        return seed;
+    }
+
+    @Override
+    public RandomGenerator seeded(byte[] seed) {
+        return REPLAYABLE.create(seed);
+    }
+}
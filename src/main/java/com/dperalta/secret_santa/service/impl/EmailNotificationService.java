@@ -2,114 +2,184 @@ package com.dperalta.secret_santa.service.impl;
 
 import com.dperalta.secret_santa.model.Draw;
 import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.service.DrawEvent;
+import com.dperalta.secret_santa.service.NotificationResult;
 import com.dperalta.secret_santa.service.NotificationService;
+import com.dperalta.secret_santa.template.NotificationTemplates;
+import com.dperalta.secret_santa.template.NotificationTemplates.DrawTemplates;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envío de asignaciones por email.
+ * Métricas: {@code notifications.email.batch} (duración de cada lote SMTP),
+ * {@code notifications.email.batch.size} (mensajes por lote) y {@code notifications.email} por result
+ * (sent / failed). No hay latencia por email: en un lote la de cada mensaje no se conoce.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailNotificationService implements NotificationService {
 
     private final JavaMailSender mailSender;
+    private final NotificationTemplates templates;
+    private final MeterRegistry meterRegistry;
+    private final DrawEventBus drawEventBus;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    @Value("${app.frontend.url}")
-    private String frontendUrl;
+    @Value("${app.notifications.smtp-batch-size:50}")
+    private int smtpBatchSize;
 
     @Override
-    public void sendAssignment(Participant giver, Participant receiver) {
-        log.info("Sending assignment notification to: {}", giver.getEmail());
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(giver.getEmail());
-            message.setSubject("🎁 Your Secret Santa Assignment - " + giver.getDraw().getName());
-            message.setText(buildEmailContent(giver, receiver));
-
-            log.debug("Sending email from: {} to: {}", fromEmail, giver.getEmail());
-
-            mailSender.send(message);
-
-            giver.setNotificationSent(true);
-            giver.setNotificationSentAt(LocalDateTime.now());
-
-            log.info("✅ Notification sent successfully to: {}", giver.getEmail());
-
-        } catch (Exception e) {
-            log.error("❌ Failed to send notification to {}: {}", giver.getEmail(), e.getMessage(), e);
-            throw new RuntimeException("Failed to send email notification", e);
+    public List<NotificationResult> sendAssignments(List<Participant> givers) {
+        // Las partes comunes de cada sorteo se resuelven una sola vez
+        Map<Draw, DrawTemplates> drawTemplates = new IdentityHashMap<>();
+        List<NotificationResult> results = new ArrayList<>(givers.size());
+        int batchSize = Math.max(1, smtpBatchSize);
+        for (int from = 0; from < givers.size(); from += batchSize) {
+            List<Participant> batch = givers.subList(from, Math.min(from + batchSize, givers.size()));
+            results.addAll(sendBatch(batch, drawTemplates));
         }
+        return results;
     }
 
-    @Override
-    public void sendAllAssignments(Draw draw) {
-        log.info("Sending all assignments for draw: {}", draw.getCode());
-
-        int successCount = 0;
-        int failCount = 0;
-
-        for (Participant participant : draw.getParticipants()) {
-            if (participant.getAssignedTo() == null) {
-                log.warn("Participant {} has no assignment, skipping notification", participant.getEmail());
-                continue;
-            }
-
+    /**
+     * Envía un lote sobre una sola conexión: {@link JavaMailSender#send(MimeMessage...)} abre
+     * el transporte una vez y reporta los mensajes fallidos en {@link MailSendException#getFailedMessages()}.
+     */
+    private List<NotificationResult> sendBatch(List<Participant> givers, Map<Draw, DrawTemplates> drawTemplates) {
+        int n = givers.size();
+        MimeMessage[] messages = new MimeMessage[n];
+        NotificationResult[] results = new NotificationResult[n];
+        List<MimeMessage> toSend = new ArrayList<>(n);
+
+        for (int i = 0; i < n; i++) {
+            Participant giver = givers.get(i);
             try {
-                sendAssignment(participant, participant.getAssignedTo());
-                successCount++;
+                DrawTemplates draw = drawTemplates.computeIfAbsent(giver.getDraw(), templates::forDraw);
+                messages[i] = createMessage(draw, giver, giver.getAssignedTo());
+                toSend.add(messages[i]);
             } catch (Exception e) {
-                log.error("Failed to send notification to {}: {}", participant.getEmail(), e.getMessage());
-                failCount++;
+                log.error("❌ Failed to build notification for {}: {}", giver.getEmail(), e.getMessage());
+                results[i] = NotificationResult.failed(giver.getId(), giver.getEmail(), e.getMessage());
             }
         }
 
-        log.info("Notification summary - Success: {}, Failed: {}", successCount, failCount);
-    }
+        Map<Object, Exception> failedMessages = Map.of();
+        String batchError = null;
+
+        if (!toSend.isEmpty()) {
+            log.debug("Sending batch of {} emails from: {}", toSend.size(), fromEmail);
+            long start = System.nanoTime();
+            try {
+                mailSender.send(toSend.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    batchError = e.getMessage();
+                }
+            } catch (MailException e) {
+                // Conexión o autenticación: no salió ningún mensaje del lote
+                batchError = e.getMessage();
+            }
+            recordBatch(System.nanoTime() - start, toSend.size());
+        }
 
-    private String buildEmailContent(Participant giver, Participant receiver) {
-        Draw draw = giver.getDraw();
+        for (int i = 0; i < n; i++) {
+            if (results[i] != null) {
+                continue;
+            }
 
-        StringBuilder content = new StringBuilder();
-        content.append("Hello ").append(giver.getName()).append("!\n\n");
-        content.append("Your Secret Santa assignment for '").append(draw.getName()).append("' is ready!\n\n");
-        content.append("🎁 You are the Secret Santa for: ").append(receiver.getName()).append("\n");
+            Participant giver = givers.get(i);
+            Exception failure = failedMessages.get(messages[i]);
 
-        if (receiver.getEmail() != null) {
-            content.append("📧 Email: ").append(receiver.getEmail()).append("\n");
+            if (batchError != null || failure != null) {
+                String error = failure != null ? failure.getMessage() : batchError;
+                log.error("❌ Failed to send notification to {}: {}", giver.getEmail(), error);
+                results[i] = NotificationResult.failed(giver.getId(), giver.getEmail(), error);
+            } else {
+                results[i] = NotificationResult.sent(giver.getId(), giver.getEmail());
+            }
         }
 
-        if (draw.getBudgetLimit() != null) {
-            content.append("💰 Budget limit: $").append(draw.getBudgetLimit()).append("\n");
+        for (int i = 0; i < n; i++) {
+            publish(givers.get(i), results[i]);
         }
 
-        if (draw.getDrawDate() != null) {
-            String formattedDate = draw.getDrawDate().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy"));
-            content.append("📅 Event date: ").append(formattedDate).append("\n");
+        int failed = failedCount(results);
+        countResults("sent", n - failed);
+        countResults("failed", failed);
+        log.info("Email batch finished - Sent: {}, Failed: {}", n - failed, failed);
+        return List.of(results);
+    }
+
+    /**
+     * Publica el resultado a los streams del sorteo, sólo si alguien está escuchando.
+     * En modo SYNC se envía dentro de la transacción de executeDraw: el evento sale recién
+     * con el commit, así un rollback no deja notificaciones de un sorteo que no ocurrió.
+     */
+    private void publish(Participant giver, NotificationResult result) {
+        String code = giver.getDraw().getCode();
+        if (drawEventBus.hasSubscribers(code)) {
+            drawEventBus.publishAfterCommit(DrawEvent.notification(code, result));
         }
+    }
+
+    private void recordBatch(long nanos, int messages) {
+        Timer.builder("notifications.email.batch")
+                .description("Time to send one SMTP batch over a single connection")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+        DistributionSummary.builder("notifications.email.batch.size")
+                .description("Messages per SMTP batch")
+                .baseUnit("messages")
+                .register(meterRegistry)
+                .record(messages);
+    }
 
-        if (draw.getDescription() != null && !draw.getDescription().isEmpty()) {
-            content.append("\nℹ️  Details: ").append(draw.getDescription()).append("\n");
+    private void countResults(String result, int count) {
+        if (count > 0) {
+            meterRegistry.counter("notifications.email", "result", result).increment(count);
         }
+    }
 
-        content.append("\n");
-        content.append("Remember to keep it a secret! 🤫\n\n");
-        content.append("View your assignment online: ").append(frontendUrl)
-                .append("/draw/").append(draw.getCode())
-                .append("?email=").append(giver.getEmail()).append("\n\n");
-        content.append("Happy gifting!\n");
-        content.append("- Secret Santa Team");
+    private static int failedCount(NotificationResult[] results) {
+        int failed = 0;
+        for (NotificationResult result : results) {
+            if (!result.success()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
 
-        return content.toString();
+    private MimeMessage createMessage(DrawTemplates draw, Participant giver, Participant receiver)
+            throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(giver.getEmail());
+        helper.setSubject(draw.subject());
+        helper.setText(draw.renderText(giver, receiver), draw.renderHtml(giver, receiver));
+        return message;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.dto.request.CreateDrawRequest;
+import com.dperalta.secret_santa.dto.request.ExclusionRequest;
+import com.dperalta.secret_santa.exception.InfeasibleDrawException;
+import com.dperalta.secret_santa.exception.InvalidExclusionRuleException;
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.DrawExclusionRepository;
+import com.dperalta.secret_santa.repository.PairHistoryRepository;
+import com.dperalta.secret_santa.utils.DrawConstraints;
+import com.dperalta.secret_santa.utils.DrawRules;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Valida, guarda y carga las reglas de exclusión de un sorteo, incluidas las
+ * parejas de sorteos anteriores cuando el sorteo tiene historyLookback.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExclusionRuleService {
+
+    private final DrawExclusionRepository exclusionRepository;
+    private final PairHistoryRepository pairHistoryRepository;
+
+    /**
+     * Valida las reglas del request contra los emails de los participantes y las guarda.
+     *
+     * @param drawId            id del sorteo ya guardado
+     * @param request           request de creación
+     * @param participantEmails emails normalizados de los participantes
+     * @throws InvalidExclusionRuleException si una regla referencia un email desconocido o repite un miembro
+     * @throws InfeasibleDrawException       si un grupo es más grande que la mitad de los participantes
+     */
+    public void save(Long drawId, CreateDrawRequest request, Set<String> participantEmails) {
+        List<List<String>> groups = new ArrayList<>();
+        if (request.getExclusionGroups() != null) {
+            Set<String> grouped = new HashSet<>();
+            for (List<String> group : request.getExclusionGroups()) {
+                List<String> members = new ArrayList<>(group.size());
+                for (String email : group) {
+                    String normalized = normalize(email);
+                    requireParticipant(normalized, email, participantEmails);
+                    if (!grouped.add(normalized)) {
+                        throw new InvalidExclusionRuleException(
+                                "Participant " + email + " appears in more than one exclusion group");
+                    }
+                    members.add(normalized);
+                }
+                if (members.size() > participantEmails.size() - members.size()) {
+                    throw new InfeasibleDrawException("an exclusion group has " + members.size()
+                            + " members, more than half of the " + participantEmails.size() + " participants");
+                }
+                groups.add(members);
+            }
+        }
+
+        List<String[]> pairs = new ArrayList<>();
+        if (request.getExclusions() != null) {
+            for (ExclusionRequest exclusion : request.getExclusions()) {
+                String giver = normalize(exclusion.getGiverEmail());
+                String receiver = normalize(exclusion.getReceiverEmail());
+                requireParticipant(giver, exclusion.getGiverEmail(), participantEmails);
+                requireParticipant(receiver, exclusion.getReceiverEmail(), participantEmails);
+                if (giver.equals(receiver)) {
+                    throw new InvalidExclusionRuleException("Exclusion for " + exclusion.getGiverEmail()
+                            + " must reference two different participants");
+                }
+                pairs.add(new String[]{giver, receiver});
+            }
+        }
+
+        exclusionRepository.saveGroups(drawId, groups);
+        exclusionRepository.savePairs(drawId, pairs);
+
+        if (!groups.isEmpty() || !pairs.isEmpty()) {
+            log.info("Saved {} exclusion groups and {} exclusions for draw {}", groups.size(), pairs.size(), drawId);
+        }
+    }
+
+    /**
+     * Carga las reglas de un sorteo sobre los índices de sus participantes: las restricciones fijas
+     * y, si tiene historyLookback, las parejas recientes con su antigüedad (relajables).
+     *
+     * @param draw sorteo con participantes cargados, en el orden que usará el algoritmo
+     * @return reglas (vacías si el sorteo no tiene reglas ni historial)
+     */
+    public DrawRules load(Draw draw) {
+        Long drawId = draw.getId();
+        List<Participant> participants = draw.getParticipants();
+        DrawConstraints constraints = new DrawConstraints(participants.size());
+        Map<String, Integer> indexByEmail = new HashMap<>(participants.size() * 2);
+        for (int i = 0; i < participants.size(); i++) {
+            indexByEmail.put(normalizedEmail(participants.get(i)), i);
+        }
+
+        Map<Integer, Integer> groupIds = new HashMap<>();
+        exclusionRepository.forEachGroupMember(drawId, (email, groupNo) -> {
+            Integer index = indexByEmail.get(email);
+            if (index != null) {
+                int groupId = groupIds.computeIfAbsent(groupNo, k -> constraints.newGroup());
+                constraints.addToGroup(index, groupId);
+            }
+        });
+
+        exclusionRepository.forEachPair(drawId, (giverEmail, receiverEmail) -> {
+            Integer giver = indexByEmail.get(giverEmail);
+            Integer receiver = indexByEmail.get(receiverEmail);
+            if (giver != null && receiver != null) {
+                constraints.exclude(giver, receiver);
+            }
+        });
+
+        if (draw.getHistoryLookback() == null) {
+            return new DrawRules(constraints, 0);
+        }
+
+        DrawRules rules = new DrawRules(constraints, draw.getHistoryLookback());
+        pairHistoryRepository.forEachRecentPair(drawId, draw.getHistoryLookback(), (giverEmail, receiverEmail, age) -> {
+            Integer giver = indexByEmail.get(giverEmail);
+            Integer receiver = indexByEmail.get(receiverEmail);
+            if (giver != null && receiver != null) {
+                rules.addHistoryPair(giver, receiver, age);
+            }
+        });
+        log.info("Loaded {} pairings from the last {} shared draws for draw {}",
+                rules.historyPairs(), draw.getHistoryLookback(), draw.getCode());
+
+        return rules;
+    }
+
+    /**
+     * Guarda las parejas del historial que se excluyeron con el lookback efectivo, para que el sorteo
+     * se pueda reproducir con su semilla aunque pair_history cambie después.
+     *
+     * @param draw     sorteo con participantes cargados, en el orden que usó el algoritmo
+     * @param lookback lookback efectivo (el configurado o el relajado)
+     */
+    public void recordAppliedHistory(Draw draw, DrawRules rules, int lookback) {
+        List<int[]> applied = rules.historyPairs(lookback);
+        if (applied.isEmpty()) {
+            return;
+        }
+        List<Participant> participants = draw.getParticipants();
+        List<String[]> pairs = new ArrayList<>(applied.size());
+        for (int[] pair : applied) {
+            pairs.add(new String[]{normalizedEmail(participants.get(pair[0])), normalizedEmail(participants.get(pair[1]))});
+        }
+        exclusionRepository.saveHistoryPairs(draw.getId(), pairs);
+        log.debug("Recorded {} applied history exclusions for draw {}", pairs.size(), draw.getCode());
+    }
+
+    /**
+     * Registra las parejas del sorteo en el historial. Las asignaciones ya deben estar escritas.
+     */
+    public void recordHistory(Draw draw) {
+        int recorded = pairHistoryRepository.record(draw.getId(), LocalDateTime.now());
+        log.debug("Recorded {} pairings in history for draw {}", recorded, draw.getCode());
+    }
+
+    private static void requireParticipant(String normalized, String email, Set<String> participantEmails) {
+        if (!participantEmails.contains(normalized)) {
+            throw new InvalidExclusionRuleException("Exclusion rule references unknown participant " + email);
+        }
+    }
+
+    static String normalizedEmail(Participant participant) {
+        return participant.getEmailNormalized() != null
+                ? participant.getEmailNormalized()
+                : normalize(participant.getEmail());
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
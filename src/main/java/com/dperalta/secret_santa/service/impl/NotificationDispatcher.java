@@ -0,0 +1,182 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.NotificationOutboxRepository;
+import com.dperalta.secret_santa.repository.ParticipantRepository;
+import com.dperalta.secret_santa.service.NotificationMode;
+import com.dperalta.secret_santa.service.NotificationResult;
+import com.dperalta.secret_santa.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decide cómo se envían las notificaciones de un sorteo según {@code app.notifications.mode}.
+ * <ul>
+ *     <li>SYNC: envía dentro de la transacción actual y persiste los resultados con updates por lote.</li>
+ *     <li>ASYNC: espera al commit, envía en virtual threads y luego persiste qué participantes fueron notificados.</li>
+ *     <li>OUTBOX: encola una fila por participante en la misma transacción; la envía {@link NotificationOutboxDispatcher}.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
+    private final NotificationService notificationService;
+    private final NotificationSender notificationSender;
+    private final ParticipantRepository participantRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final DrawCacheEvictor drawCacheEvictor;
+    private final NotificationMode mode;
+
+    public NotificationDispatcher(NotificationService notificationService,
+                                  NotificationSender notificationSender,
+                                  ParticipantRepository participantRepository,
+                                  NotificationOutboxRepository outboxRepository,
+                                  DrawCacheEvictor drawCacheEvictor,
+                                  @Value("${app.notifications.mode:outbox}") NotificationMode mode) {
+        this.notificationService = notificationService;
+        this.notificationSender = notificationSender;
+        this.participantRepository = participantRepository;
+        this.outboxRepository = outboxRepository;
+        this.drawCacheEvictor = drawCacheEvictor;
+        this.mode = mode;
+    }
+
+    /**
+     * Programa el envío de las notificaciones de un sorteo ya asignado.
+     * Debe llamarse dentro de la transacción que guardó las asignaciones.
+     *
+     * @param draw sorteo con participantes asignados
+     * Los fallos de envío SMTP se registran y no se propagan; los errores al encolar en el outbox sí,
+     * para que el sorteo haga rollback.
+     *
+     * @return resultados por participante (vacío en modo OUTBOX, si la transacción hace rollback
+     * o si el envío SYNC falló por completo)
+     */
+    public CompletableFuture<List<NotificationResult>> dispatch(Draw draw) {
+        switch (mode) {
+            case SYNC -> {
+                List<NotificationResult> results;
+                try {
+                    results = notificationService.sendAssignments(assignedGivers(draw));
+                } catch (Exception e) {
+                    // No falla el sorteo si las notificaciones fallan: se pueden reenviar
+                    log.error("Error sending notifications for draw {}: {}", draw.getCode(), e.getMessage(), e);
+                    return CompletableFuture.completedFuture(List.of());
+                }
+                markSent(draw.getCode(), results);
+                logSummary(draw.getCode(), results);
+                return CompletableFuture.completedFuture(results);
+            }
+            case OUTBOX -> {
+                // Las asignaciones tienen que estar en la base antes del INSERT ... SELECT
+                outboxRepository.flush();
+                int queued = outboxRepository.enqueueForDraw(draw.getId(), LocalDateTime.now());
+                log.info("Queued {} notifications in outbox for draw {}", queued, draw.getCode());
+                return CompletableFuture.completedFuture(List.of());
+            }
+            default -> {
+                return dispatchAfterCommit(draw);
+            }
+        }
+    }
+
+    private CompletableFuture<List<NotificationResult>> dispatchAfterCommit(Draw draw) {
+        // Inicializar el grafo mientras la sesión sigue abierta: los envíos corren fuera de ella
+        List<Participant> givers = assignedGivers(draw);
+        for (Participant giver : givers) {
+            Hibernate.initialize(giver.getAssignedTo());
+        }
+
+        CompletableFuture<List<NotificationResult>> results = new CompletableFuture<>();
+        String code = draw.getCode();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        submit(code, givers, results);
+                    } else {
+                        results.complete(List.of());
+                    }
+                }
+            });
+        } else {
+            submit(code, givers, results);
+        }
+
+        return results;
+    }
+
+    private void submit(String code, List<Participant> givers, CompletableFuture<List<NotificationResult>> results) {
+        notificationSender.execute(() -> {
+            try {
+                results.complete(sendAll(code, givers));
+            } catch (Exception e) {
+                log.error("Error sending notifications for draw {}: {}", code, e.getMessage(), e);
+                results.completeExceptionally(e);
+            }
+        });
+    }
+
+    private List<NotificationResult> sendAll(String code, List<Participant> givers) throws InterruptedException {
+        log.info("Sending {} notifications for draw {} asynchronously", givers.size(), code);
+
+        List<NotificationResult> results = notificationSender.sendAll(givers);
+        markSent(code, results);
+        logSummary(code, results);
+        return results;
+    }
+
+    private static List<Participant> assignedGivers(Draw draw) {
+        List<Participant> givers = new ArrayList<>(draw.getParticipants().size());
+        for (Participant participant : draw.getParticipants()) {
+            if (participant.getAssignedTo() == null) {
+                log.warn("Participant {} has no assignment, skipping notification", participant.getEmail());
+                continue;
+            }
+            givers.add(participant);
+        }
+        return givers;
+    }
+
+    /**
+     * Persiste notification_sent de los envíos exitosos con updates por lote e invalida las
+     * respuestas cacheadas del sorteo (en modo ASYNC esto corre fuera de cualquier {@code @CacheEvict}).
+     */
+    private void markSent(String code, List<NotificationResult> results) {
+        List<Long> sentIds = new ArrayList<>(results.size());
+        for (NotificationResult result : results) {
+            if (result.success()) {
+                sentIds.add(result.participantId());
+            }
+        }
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (int from = 0; from < sentIds.size(); from += UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = sentIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, sentIds.size()));
+            participantRepository.markNotificationsSent(chunk, sentAt);
+        }
+        if (!sentIds.isEmpty()) {
+            drawCacheEvictor.evict(code);
+        }
+    }
+
+    private static void logSummary(String code, List<NotificationResult> results) {
+        long success = results.stream().filter(NotificationResult::success).count();
+        log.info("Notification summary for draw {} - Success: {}, Failed: {}", code, success, results.size() - success);
+    }
+}
@@ -0,0 +1,167 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.model.NotificationOutbox;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.NotificationOutboxRepository;
+import com.dperalta.secret_santa.repository.ParticipantRepository;
+import com.dperalta.secret_santa.service.NotificationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Envía las notificaciones encoladas en {@code notification_outbox}.
+ * <p>
+ * Cada ciclo reclama lotes con {@code SELECT ... FOR UPDATE SKIP LOCKED} en una transacción corta,
+ * envía los emails fuera de la transacción y escribe los resultados con updates por lote.
+ * Cada nodo reclama lotes distintos, así el throughput escala con la cantidad de nodos.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.notifications.mode", havingValue = "outbox", matchIfMissing = true)
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final ParticipantRepository participantRepository;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+    private final DrawCacheEvictor drawCacheEvictor;
+
+    @Value("${app.notifications.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notifications.outbox.max-batches-per-poll:50}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.notifications.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.notifications.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.outbox.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        ParticipantRepository participantRepository,
+                                        NotificationSender notificationSender,
+                                        TransactionTemplate transactionTemplate,
+                                        DrawCacheEvictor drawCacheEvictor) {
+        this.outboxRepository = outboxRepository;
+        this.participantRepository = participantRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = transactionTemplate;
+        this.drawCacheEvictor = drawCacheEvictor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+            int processed;
+            try {
+                processed = processBatch();
+            } catch (Exception e) {
+                log.error("Error processing notification outbox batch: {}", e.getMessage(), e);
+                return;
+            }
+            if (processed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reclama, envía y confirma un lote.
+     *
+     * @return cantidad de filas reclamadas
+     */
+    int processBatch() throws InterruptedException {
+        List<Long> claimed = claim();
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<NotificationOutbox> rows = outboxRepository.findAllWithParticipants(claimed);
+        List<Participant> givers = new ArrayList<>(rows.size());
+        Map<Long, Long> outboxIdByParticipant = new HashMap<>(rows.size() * 2);
+        Map<Long, String> drawCodeByParticipant = new HashMap<>(rows.size() * 2);
+        for (NotificationOutbox row : rows) {
+            givers.add(row.getParticipant());
+            outboxIdByParticipant.put(row.getParticipant().getId(), row.getId());
+            drawCodeByParticipant.put(row.getParticipant().getId(), row.getParticipant().getDraw().getCode());
+        }
+
+        List<NotificationResult> results = notificationSender.sendAll(givers);
+        complete(results, outboxIdByParticipant, drawCodeByParticipant);
+
+        return claimed.size();
+    }
+
+    private List<Long> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            int expired = outboxRepository.failExpired(now, maxAttempts);
+            if (expired > 0) {
+                log.warn("Marked {} outbox notifications as failed after their last lease expired", expired);
+            }
+            List<Long> ids = outboxRepository.lockClaimable(now, batchSize, maxAttempts);
+            if (!ids.isEmpty()) {
+                outboxRepository.markProcessing(ids, now.plusSeconds(leaseSeconds));
+            }
+            return ids;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void complete(List<NotificationResult> results, Map<Long, Long> outboxIdByParticipant,
+                          Map<Long, String> drawCodeByParticipant) {
+        List<Long> sentOutboxIds = new ArrayList<>(results.size());
+        List<Long> sentParticipantIds = new ArrayList<>(results.size());
+        Set<String> sentDrawCodes = new HashSet<>();
+        List<NotificationResult> failures = new ArrayList<>();
+
+        for (NotificationResult result : results) {
+            if (result.success()) {
+                sentOutboxIds.add(outboxIdByParticipant.get(result.participantId()));
+                sentParticipantIds.add(result.participantId());
+                sentDrawCodes.add(drawCodeByParticipant.get(result.participantId()));
+            } else {
+                failures.add(result);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentOutboxIds.isEmpty()) {
+                outboxRepository.markSent(sentOutboxIds, now);
+                participantRepository.markNotificationsSent(sentParticipantIds, now);
+                // Las respuestas cacheadas incluyen notificationSent de cada participante
+                drawCacheEvictor.evictAll(sentDrawCodes);
+            }
+            for (NotificationResult failure : failures) {
+                outboxRepository.markFailed(outboxIdByParticipant.get(failure.participantId()),
+                        truncate(failure.error()), now.plusSeconds(retryDelaySeconds), maxAttempts);
+            }
+        });
+
+        log.info("Outbox batch summary - Success: {}, Failed: {}", sentOutboxIds.size(), failures.size());
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,88 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.service.NotificationResult;
+import com.dperalta.secret_santa.service.NotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Envía notificaciones en paralelo usando virtual threads.
+ * Los participantes se parten en lotes de {@code app.notifications.smtp-batch-size}; cada lote
+ * viaja por una sola conexión SMTP y como máximo hay {@code app.notifications.max-concurrency}
+ * lotes (conexiones) en vuelo.
+ * <p>
+ * Los participantes recibidos deben tener {@code draw} y {@code assignedTo} inicializados:
+ * los envíos corren fuera de cualquier sesión de Hibernate.
+ */
+@Slf4j
+@Component
+public class NotificationSender {
+
+    private final NotificationService notificationService;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationSender(NotificationService notificationService,
+                              @Value("${app.notifications.max-concurrency:16}") int maxConcurrency,
+                              @Value("${app.notifications.smtp-batch-size:50}") int batchSize) {
+        this.notificationService = notificationService;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Ejecuta una tarea en un virtual thread.
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Envía la asignación a cada giver y espera a que terminen todos los envíos.
+     *
+     * @param givers participantes con asignación
+     * @return un resultado por participante, en el mismo orden
+     */
+    public List<NotificationResult> sendAll(List<Participant> givers) throws InterruptedException {
+        List<CompletableFuture<List<NotificationResult>>> futures = new ArrayList<>();
+        for (int from = 0; from < givers.size(); from += batchSize) {
+            List<Participant> batch = givers.subList(from, Math.min(from + batchSize, givers.size()));
+            permits.acquire();
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return notificationService.sendAssignments(batch);
+                } catch (Exception e) {
+                    List<NotificationResult> failed = new ArrayList<>(batch.size());
+                    for (Participant giver : batch) {
+                        failed.add(NotificationResult.failed(giver.getId(), giver.getEmail(), e.getMessage()));
+                    }
+                    return failed;
+                } finally {
+                    permits.release();
+                }
+            }, executor));
+        }
+
+        List<NotificationResult> results = new ArrayList<>(givers.size());
+        for (CompletableFuture<List<NotificationResult>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
@@ -0,0 +1,293 @@
+package com.dperalta.secret_santa.service.impl;
+
+import com.dperalta.secret_santa.dto.request.ParticipantRequest;
+import com.dperalta.secret_santa.dto.response.ImportResultResponse;
+import com.dperalta.secret_santa.dto.response.ImportRowError;
+import com.dperalta.secret_santa.exception.DrawAlreadyExecutedException;
+import com.dperalta.secret_santa.exception.DrawNotFoundException;
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.DrawStatus;
+import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.DrawRepository;
+import com.dperalta.secret_santa.repository.ParticipantBulkRepository;
+import com.dperalta.secret_santa.repository.ParticipantRepository;
+import com.dperalta.secret_santa.service.ImportFormat;
+import com.dperalta.secret_santa.service.ParticipantImportService;
+import com.dperalta.secret_santa.utils.CsvLineParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ParticipantImportServiceImpl implements ParticipantImportService {
+
+    private final DrawRepository drawRepository;
+    private final ParticipantRepository participantRepository;
+    private final ParticipantBulkRepository participantBulkRepository;
+    private final DrawEntityCache drawEntityCache;
+    private final DrawCacheEvictor drawCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ParticipantImportServiceImpl(DrawRepository drawRepository,
+                                        ParticipantRepository participantRepository,
+                                        ParticipantBulkRepository participantBulkRepository,
+                                        DrawEntityCache drawEntityCache,
+                                        DrawCacheEvictor drawCacheEvictor,
+                                        TransactionTemplate transactionTemplate,
+                                        Validator validator,
+                                        JsonMapper jsonMapper) {
+        this.drawRepository = drawRepository;
+        this.participantRepository = participantRepository;
+        this.participantBulkRepository = participantBulkRepository;
+        this.drawEntityCache = drawEntityCache;
+        this.drawCacheEvictor = drawCacheEvictor;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public ImportResultResponse importParticipants(String code, InputStream input, ImportFormat format)
+            throws IOException {
+        try {
+            return doImportParticipants(code, input, format);
+        } finally {
+            // Cada lote confirma por separado: aunque el import falle a mitad, los anteriores ya están en la base
+            drawCacheEvictor.evict(code);
+        }
+    }
+
+    private ImportResultResponse doImportParticipants(String code, InputStream input, ImportFormat format)
+            throws IOException {
+        log.info("Importing participants ({}) into draw: {}", format, code);
+
+        Draw draw = drawRepository.findByCode(code)
+                .orElseThrow(() -> new DrawNotFoundException(code));
+
+        if (draw.getStatus() != DrawStatus.PENDING) {
+            throw new DrawAlreadyExecutedException(code);
+        }
+
+        ImportState state = new ImportState(draw.getId(), code);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long row = 0;
+            int[] csvColumns = null;
+
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == ImportFormat.CSV && csvColumns == null) {
+                    csvColumns = csvColumns(line);
+                    if (csvColumns != null) {
+                        continue;
+                    }
+                    csvColumns = new int[]{0, 1, 2};
+                }
+
+                state.totalRows++;
+                ParticipantRequest request;
+                try {
+                    request = format == ImportFormat.CSV
+                            ? fromCsv(line, csvColumns)
+                            : jsonMapper.readValue(line, ParticipantRequest.class);
+                } catch (JacksonException e) {
+                    state.reject(row, null, "Malformed row: " + e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    state.reject(row, null, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+
+                accept(state, row, request);
+            }
+        }
+
+        flush(state);
+
+        log.info("Import finished for draw {} - Rows: {}, Imported: {}, Rejected: {}",
+                code, state.totalRows, state.imported, state.rejected);
+
+        return ImportResultResponse.builder()
+                .drawCode(code)
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .rejected(state.rejected)
+                .errors(state.errors)
+                .errorsTruncated(state.rejected > state.errors.size())
+                .build();
+    }
+
+    private void accept(ImportState state, long row, ParticipantRequest request) {
+        Set<ConstraintViolation<ParticipantRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            state.reject(row, request.getEmail(), message);
+            return;
+        }
+
+        String normalized = request.getEmail().trim().toLowerCase(Locale.ROOT);
+        if (!state.chunkEmails.add(normalized)) {
+            state.reject(row, request.getEmail(), "Duplicate email in upload");
+            return;
+        }
+
+        state.chunkRows.add(row);
+        state.chunk.add(Participant.builder()
+                .name(request.getName().trim())
+                .email(request.getEmail().trim())
+                .phone(request.getPhone())
+                .build());
+
+        if (state.chunk.size() >= chunkSize) {
+            flush(state);
+        }
+    }
+
+    /**
+     * Inserta el lote actual en su propia transacción. Los emails ya existentes en el sorteo
+     * (incluidos los de lotes anteriores de este mismo upload) se buscan con el índice
+     * (draw_id, email_normalized) y se reportan como duplicados.
+     */
+    private void flush(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Primero se re-chequea PENDING y se bloquea la fila del sorteo hasta el commit: un executeDraw
+            // concurrente espera a este lote (o, si ganó antes, el lote se aborta) y dos imports al mismo
+            // sorteo se serializan, así el chequeo de duplicados de abajo ve los lotes ya confirmados
+            if (drawRepository.touchIfPending(state.drawId, LocalDateTime.now()) == 0) {
+                throw new DrawAlreadyExecutedException(state.code);
+            }
+
+            Set<String> existing = new HashSet<>(
+                    participantRepository.findExistingNormalizedEmails(state.drawId, state.chunkEmails));
+
+            List<Participant> toInsert = new ArrayList<>(state.chunk.size());
+            for (int i = 0; i < state.chunk.size(); i++) {
+                Participant participant = state.chunk.get(i);
+                if (existing.contains(participant.getEmail().toLowerCase(Locale.ROOT))) {
+                    state.reject(state.chunkRows.get(i), participant.getEmail(),
+                            "Participant with email " + participant.getEmail() + " already exists in this draw");
+                } else {
+                    toInsert.add(participant);
+                }
+            }
+
+            if (toInsert.isEmpty()) {
+                // Nada que insertar: se descarta el touch para no cambiar la versión (ETag) del sorteo
+                status.setRollbackOnly();
+                return;
+            }
+
+            int inserted = participantBulkRepository.insertAll(state.drawId, toInsert);
+            drawEntityCache.evictParticipantsAfterCommit(state.drawId);
+            state.imported += inserted;
+        });
+
+        state.chunk.clear();
+        state.chunkRows.clear();
+        state.chunkEmails.clear();
+    }
+
+    /**
+     * Si la línea es un header (contiene "email"), devuelve las posiciones de name, email y phone.
+     */
+    private static int[] csvColumns(String line) {
+        List<String> header = CsvLineParser.parse(line);
+        int email = indexOfIgnoreCase(header, "email");
+        if (email < 0) {
+            return null;
+        }
+        return new int[]{indexOfIgnoreCase(header, "name"), email, indexOfIgnoreCase(header, "phone")};
+    }
+
+    private static int indexOfIgnoreCase(List<String> values, String value) {
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).equalsIgnoreCase(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ParticipantRequest fromCsv(String line, int[] columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        return ParticipantRequest.builder()
+                .name(field(fields, columns[0]))
+                .email(field(fields, columns[1]))
+                .phone(field(fields, columns[2]))
+                .build();
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    /**
+     * Estado de un import: contadores y el lote pendiente de insertar (acotado a chunk-size).
+     */
+    private final class ImportState {
+
+        private final Long drawId;
+        private final String code;
+        private final List<Participant> chunk = new ArrayList<>();
+        private final List<Long> chunkRows = new ArrayList<>();
+        private final Set<String> chunkEmails = new HashSet<>();
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long rejected;
+
+        private ImportState(Long drawId, String code) {
+            this.drawId = drawId;
+            this.code = code;
+        }
+
+        private void reject(long row, String email, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowError(row, email, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.dperalta.secret_santa.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Plantilla de email precompilada.
+ * <p>
+ * Sintaxis:
+ * <ul>
+ *     <li>{@code {{name}}}: variable</li>
+ *     <li>{@code {{#name}}...{{/name}}}: sección que sólo se incluye si {@code name} tiene valor</li>
+ * </ul>
+ * Se usa en dos pasos: {@link #bind(Map)} resuelve una vez las variables comunes a todo el sorteo
+ * (y las secciones) y deja una {@link Bound} con literales ya concatenados; {@link Bound#render(Function)}
+ * completa sólo los campos de cada participante.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private sealed interface Node permits Text, Variable, Section {
+    }
+
+    private record Text(String value) implements Node {
+    }
+
+    private record Variable(String name) implements Node {
+    }
+
+    private record Section(String name, List<Node> children) implements Node {
+    }
+
+    private final List<Node> nodes;
+    private final boolean html;
+
+    private EmailTemplate(List<Node> nodes, boolean html) {
+        this.nodes = nodes;
+        this.html = html;
+    }
+
+    /**
+     * Compila una plantilla.
+     *
+     * @param source texto de la plantilla
+     * @param html   true para escapar los valores como HTML
+     * @return plantilla compilada
+     * @throws IllegalArgumentException si la plantilla está mal formada
+     */
+    public static EmailTemplate compile(String source, boolean html) {
+        Deque<Section> open = new ArrayDeque<>();
+        List<Node> root = new ArrayList<>();
+        List<Node> current = root;
+        int pos = 0;
+
+        while (pos < source.length()) {
+            int start = source.indexOf(OPEN, pos);
+            if (start < 0) {
+                current.add(new Text(source.substring(pos)));
+                break;
+            }
+            if (start > pos) {
+                current.add(new Text(source.substring(pos, start)));
+            }
+
+            int end = source.indexOf(CLOSE, start + OPEN.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed tag at position " + start);
+            }
+
+            String tag = source.substring(start + OPEN.length(), end).trim();
+            if (tag.startsWith("#")) {
+                Section section = new Section(tag.substring(1), new ArrayList<>());
+                current.add(section);
+                open.push(section);
+                current = section.children();
+            } else if (tag.startsWith("/")) {
+                if (open.isEmpty() || !open.peek().name().equals(tag.substring(1))) {
+                    throw new IllegalArgumentException("Unexpected closing tag {{" + tag + "}} at position " + start);
+                }
+                open.pop();
+                current = open.isEmpty() ? root : open.peek().children();
+            } else {
+                current.add(new Variable(tag));
+            }
+
+            pos = end + CLOSE.length();
+        }
+
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed section {{#" + open.peek().name() + "}}");
+        }
+
+        return new EmailTemplate(List.copyOf(root), html);
+    }
+
+    /**
+     * Resuelve las variables presentes en {@code values} y todas las secciones.
+     * Las variables ausentes quedan como huecos para {@link Bound#render(Function)}.
+     * Las secciones se evalúan acá: si su variable no está en {@code values} (o está vacía), se omiten.
+     *
+     * @param values valores comunes a todo el sorteo
+     * @return plantilla parcialmente resuelta
+     */
+    public Bound bind(Map<String, String> values) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        bind(nodes, values, parts, literal);
+        if (!literal.isEmpty()) {
+            parts.add(literal.toString());
+        }
+        return new Bound(parts.toArray(), html);
+    }
+
+    private void bind(List<Node> nodes, Map<String, String> values, List<Object> parts, StringBuilder literal) {
+        for (Node node : nodes) {
+            switch (node) {
+                case Text text -> literal.append(text.value());
+                case Variable variable -> {
+                    if (values.containsKey(variable.name())) {
+                        appendValue(literal, values.get(variable.name()), html);
+                    } else {
+                        if (!literal.isEmpty()) {
+                            parts.add(literal.toString());
+                            literal.setLength(0);
+                        }
+                        parts.add(new Slot(variable.name()));
+                    }
+                }
+                case Section section -> {
+                    String value = values.get(section.name());
+                    if (value != null && !value.isEmpty()) {
+                        bind(section.children(), values, parts, literal);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Slot(String name) {
+    }
+
+    /**
+     * Plantilla con las variables del sorteo ya resueltas.
+     * Es inmutable y se puede compartir entre threads.
+     */
+    public static final class Bound {
+
+        private final Object[] parts;
+        private final boolean html;
+        private final int literalLength;
+
+        private Bound(Object[] parts, boolean html) {
+            this.parts = parts;
+            this.html = html;
+            int length = 0;
+            for (Object part : parts) {
+                if (part instanceof String text) {
+                    length += text.length();
+                }
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * Completa los huecos restantes.
+         *
+         * @param values resuelve el valor de cada variable por nombre (null = vacío)
+         * @return texto final
+         */
+        public String render(Function<String, String> values) {
+            StringBuilder out = new StringBuilder(literalLength + 64);
+            for (Object part : parts) {
+                if (part instanceof String text) {
+                    out.append(text);
+                } else {
+                    appendValue(out, values.apply(((Slot) part).name()), html);
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    private static void appendValue(StringBuilder out, String value, boolean html) {
+        if (value == null) {
+            return;
+        }
+        if (!html) {
+            out.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
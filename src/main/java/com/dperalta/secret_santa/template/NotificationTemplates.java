@@ -0,0 +1,95 @@
+package com.dperalta.secret_santa.template;
+
+import com.dperalta.secret_santa.model.Draw;
+import com.dperalta.secret_santa.model.Participant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Plantillas de los emails de asignación, compiladas una sola vez al iniciar.
+ * <p>
+ * Variables del sorteo: drawName, drawUrl, budgetLimit, drawDate, description.
+ * Variables por participante: giverName, giverEmail, receiverName, receiverEmail.
+ */
+@Component
+public class NotificationTemplates {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
+
+    private final String frontendUrl;
+    private final EmailTemplate subject;
+    private final EmailTemplate text;
+    private final EmailTemplate html;
+
+    public NotificationTemplates(@Value("${app.frontend.url}") String frontendUrl) {
+        this.frontendUrl = frontendUrl;
+        this.subject = EmailTemplate.compile("🎁 Your Secret Santa Assignment - {{drawName}}", false);
+        this.text = EmailTemplate.compile(load("templates/email/assignment.txt"), false);
+        this.html = EmailTemplate.compile(load("templates/email/assignment.html"), true);
+    }
+
+    /**
+     * Resuelve las partes comunes a todos los emails de un sorteo.
+     * Llamar una vez por sorteo y reutilizar el resultado para cada participante.
+     *
+     * @param draw sorteo
+     * @return plantillas listas para completar por participante
+     */
+    public DrawTemplates forDraw(Draw draw) {
+        Map<String, String> values = new HashMap<>();
+        values.put("drawName", draw.getName());
+        values.put("drawUrl", frontendUrl + "/draw/" + draw.getCode());
+        values.put("budgetLimit", draw.getBudgetLimit() != null ? draw.getBudgetLimit().toString() : null);
+        values.put("drawDate", draw.getDrawDate() != null ? draw.getDrawDate().format(DATE_FORMAT) : null);
+        values.put("description", draw.getDescription());
+
+        return new DrawTemplates(subject.bind(values).render(name -> null), text.bind(values), html.bind(values));
+    }
+
+    /**
+     * Plantillas de un sorteo con las variables comunes ya resueltas.
+     *
+     * @param subject asunto (no depende del participante)
+     * @param text    cuerpo en texto plano
+     * @param html    cuerpo HTML
+     */
+    public record DrawTemplates(String subject, EmailTemplate.Bound text, EmailTemplate.Bound html) {
+
+        public String renderText(Participant giver, Participant receiver) {
+            return text.render(participantValues(giver, receiver));
+        }
+
+        public String renderHtml(Participant giver, Participant receiver) {
+            return html.render(participantValues(giver, receiver));
+        }
+
+        private static Function<String, String> participantValues(Participant giver, Participant receiver) {
+            return name -> switch (name) {
+                case "giverName" -> giver.getName();
+                case "giverEmail" -> giver.getEmail();
+                case "receiverName" -> receiver.getName();
+                case "receiverEmail" -> receiver.getEmail();
+                default -> null;
+            };
+        }
+    }
+
+    private static String load(String path) {
+        try {
+            String content = new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+            // Los archivos terminan en salto de línea; el email no
+            return content.endsWith("\n") ? content.substring(0, content.length() - 1) : content;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email template " + path, e);
+        }
+    }
+}
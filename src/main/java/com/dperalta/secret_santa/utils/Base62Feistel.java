@@ -0,0 +1,129 @@
+package com.dperalta.secret_santa.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+/**
+ * Permutación con clave sobre los códigos base62 de longitud fija (cifrado que preserva el formato).
+ * <p>
+ * El valor se parte en dos mitades de dígitos base62 y pasa por una red de Feistel
+ * desbalanceada con suma modular: cada ronda suma a una mitad un HMAC-SHA256 de la otra.
+ * Cada ronda es invertible, así que valores distintos dan siempre códigos distintos;
+ * sin la clave, un código no revela la secuencia ni permite adivinar los vecinos.
+ * <p>
+ * Es thread-safe.
+ */
+public final class Base62Feistel {
+
+    private static final int ROUNDS = 10;
+    private static final int MIN_LENGTH = 4;
+    private static final int MAX_LENGTH = 10;   // 62^10 todavía entra en un long
+
+    private final int length;
+    private final long leftModulus;
+    private final long rightModulus;
+    private final long domainSize;
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * @param key    clave secreta (debe ser estable: cambiarla cambia todos los códigos)
+     * @param length longitud de los códigos, entre 4 y 10
+     */
+    public Base62Feistel(byte[] key, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Code length must be between " + MIN_LENGTH + " and " + MAX_LENGTH);
+        }
+        if (key == null || key.length == 0) {
+            throw new IllegalArgumentException("Code key must not be empty");
+        }
+        this.length = length;
+        this.leftModulus = pow62(length / 2);
+        this.rightModulus = pow62(length - length / 2);
+        this.domainSize = leftModulus * rightModulus;
+
+        SecretKeySpec keySpec = new SecretKeySpec(key, "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * Cantidad de códigos distintos (62^length).
+     */
+    public long domainSize() {
+        return domainSize;
+    }
+
+    /**
+     * Código de {@code length} caracteres para un valor de la secuencia.
+     *
+     * @param value valor en [0, domainSize)
+     */
+    public String encode(long value) {
+        return CodeGenerator.toBase62(permute(value), length);
+    }
+
+    /**
+     * Permutación del valor dentro de [0, domainSize).
+     */
+    public long permute(long value) {
+        if (value < 0 || value >= domainSize) {
+            throw new IllegalArgumentException("Value out of range for " + length + "-character codes: " + value);
+        }
+        long left = value / rightModulus;
+        long right = value % rightModulus;
+
+        Mac hmac = mac.get();
+        for (int round = 0; round < ROUNDS; round++) {
+            if ((round & 1) == 0) {
+                left = Math.floorMod(left + roundFunction(hmac, round, right, leftModulus), leftModulus);
+            } else {
+                right = Math.floorMod(right + roundFunction(hmac, round, left, rightModulus), rightModulus);
+            }
+        }
+        return left * rightModulus + right;
+    }
+
+    /**
+     * Inversa de {@link #permute(long)}: recupera el valor de la secuencia de un código.
+     */
+    public long unpermute(long permuted) {
+        if (permuted < 0 || permuted >= domainSize) {
+            throw new IllegalArgumentException("Value out of range for " + length + "-character codes: " + permuted);
+        }
+        long left = permuted / rightModulus;
+        long right = permuted % rightModulus;
+
+        Mac hmac = mac.get();
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            if ((round & 1) == 0) {
+                left = Math.floorMod(left - roundFunction(hmac, round, right, leftModulus), leftModulus);
+            } else {
+                right = Math.floorMod(right - roundFunction(hmac, round, left, rightModulus), rightModulus);
+            }
+        }
+        return left * rightModulus + right;
+    }
+
+    private static long roundFunction(Mac hmac, int round, long half, long modulus) {
+        byte[] input = ByteBuffer.allocate(Integer.BYTES + Long.BYTES).putInt(round).putLong(half).array();
+        byte[] digest = hmac.doFinal(input);
+        return Long.remainderUnsigned(ByteBuffer.wrap(digest).getLong(), modulus);
+    }
+
+    private static long pow62(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 62;
+        }
+        return result;
+    }
+}
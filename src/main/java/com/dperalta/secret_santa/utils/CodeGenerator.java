@@ -8,24 +8,40 @@ import java.security.SecureRandom;
 public class CodeGenerator {
 
     private static final String BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
-    private static final SecureRandom RANDOM = new SecureRandom();
     private static final int DEFAULT_LENGTH = 6;
 
     /**
      * Genera un código alfanumérico aleatorio.
-     * Usa SecureRandom para mejor distribución y seguridad.
+     * Usa SecureRandom compartidos por franjas de hilos para mejor distribución y seguridad, con poca contención.
      *
      * @param length longitud del código
      * @return código generado
      */
     public static String generate(int length) {
+        SecureRandom random = StripedSecureRandom.DEFAULT.current();
         StringBuilder code = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            code.append(BASE62.charAt(RANDOM.nextInt(BASE62.length())));
+            code.append(BASE62.charAt(random.nextInt(BASE62.length())));
         }
         return code.toString();
     }
 
+    /**
+     * Escribe un valor en base62 con exactamente {@code length} dígitos (rellena con '0' a la izquierda).
+     *
+     * @param value  valor no negativo menor que 62^length
+     * @param length cantidad de dígitos
+     * @return código de {@code length} caracteres
+     */
+    public static String toBase62(long value, int length) {
+        char[] digits = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = BASE62.charAt((int) (value % BASE62.length()));
+            value /= BASE62.length();
+        }
+        return new String(digits);
+    }
+
     /**
      * Genera un código de longitud por defecto (6 caracteres).
      *
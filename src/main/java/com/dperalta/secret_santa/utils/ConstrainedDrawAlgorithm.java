@@ -0,0 +1,233 @@
+package com.dperalta.secret_santa.utils;
+
+import com.dperalta.secret_santa.exception.InfeasibleDrawException;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteo con reglas de exclusión, modelado como un matching perfecto en el grafo bipartito
+ * giver → receiver de pares permitidos.
+ * <p>
+ * Algoritmo:
+ * 1. Chequeos rápidos de factibilidad (Hall): nadie sin receptores posibles, ningún grupo con más de n/2 miembros
+ * 2. Matching greedy aleatorio: cada giver sondea receptores libres al azar. Los givers se procesan
+ *    de más a menos restringido (desempate aleatorio), así los grupos grandes no se quedan sin opciones al final
+ * 3. Si un giver no encuentra receptor libre permitido, busca un camino de aumento por BFS
+ * <p>
+ * Como el grafo de pares permitidos es denso (las reglas son pocas respecto de n²), el paso 2 casi siempre
+ * resuelve en O(1) por giver y el paso 3 es raro. Si el BFS no encuentra camino de aumento, no existe
+ * ningún matching perfecto (Berge) y el sorteo es infactible.
+ * <p>
+ * El resultado es una permutación válida sin puntos fijos, pero puede formar varios ciclos.
+ */
+@Slf4j
+@UtilityClass
+public class ConstrainedDrawAlgorithm {
+
+    private static final int RANDOM_PROBES = 32;
+    private static final int UNMATCHED = -1;
+
+    /**
+     * Calcula una asignación que respeta las restricciones.
+     *
+     * @param constraints restricciones sobre n participantes
+     * @param random      generador del hilo actual (o uno determinista para reproducir el sorteo)
+     * @return receivers[i] = índice del receptor del participante i
+     * @throws InfeasibleDrawException si ninguna asignación respeta las reglas
+     */
+    public static int[] solve(DrawConstraints constraints, RandomGenerator random) {
+        int n = constraints.size();
+        int[] allowedCounts = checkFeasibility(constraints);
+
+        int[] receiverOf = new int[n];
+        int[] giverOf = new int[n];
+        Arrays.fill(receiverOf, UNMATCHED);
+        Arrays.fill(giverOf, UNMATCHED);
+
+        // Receptores libres, con remoción O(1) por swap
+        int[] free = shuffledIndexes(n, random);
+        int[] freePos = new int[n];
+        for (int i = 0; i < n; i++) {
+            freePos[free[i]] = i;
+        }
+        int freeCount = n;
+
+        int augmentations = 0;
+        int[] givers = mostConstrainedFirst(allowedCounts, random);
+
+        for (int giver : givers) {
+            int receiver = UNMATCHED;
+
+            // 1. Sondeo aleatorio
+            for (int probe = 0; probe < RANDOM_PROBES && freeCount > 0; probe++) {
+                int candidate = free[random.nextInt(freeCount)];
+                if (constraints.isAllowed(giver, candidate)) {
+                    receiver = candidate;
+                    break;
+                }
+            }
+
+            // 2. Recorrido completo de los libres
+            if (receiver == UNMATCHED) {
+                for (int i = 0; i < freeCount; i++) {
+                    if (constraints.isAllowed(giver, free[i])) {
+                        receiver = free[i];
+                        break;
+                    }
+                }
+            }
+
+            if (receiver != UNMATCHED) {
+                receiverOf[giver] = receiver;
+                giverOf[receiver] = giver;
+            } else {
+                // 3. Camino de aumento
+                receiver = augment(giver, constraints, receiverOf, giverOf, random);
+                if (receiver == UNMATCHED) {
+                    throw new InfeasibleDrawException("no assignment exists for every participant");
+                }
+                augmentations++;
+            }
+
+            // Sacar de los libres el receptor que quedó ocupado
+            int pos = freePos[receiver];
+            int last = free[--freeCount];
+            free[pos] = last;
+            freePos[last] = pos;
+        }
+
+        log.info("Constrained draw completed for {} participants ({} augmenting paths)", n, augmentations);
+        return receiverOf;
+    }
+
+    /**
+     * Busca por BFS un camino alternante desde giver hasta un receptor libre y lo aplica.
+     *
+     * @return el receptor libre que quedó ocupado, o UNMATCHED si no hay camino
+     */
+    private static int augment(int start, DrawConstraints constraints, int[] receiverOf, int[] giverOf,
+                               RandomGenerator random) {
+        int n = constraints.size();
+        int[] parent = new int[n];
+        int[] unvisited = shuffledIndexes(n, random);
+        int unvisitedCount = n;
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int giver = queue[head++];
+            int i = 0;
+            while (i < unvisitedCount) {
+                int receiver = unvisited[i];
+                if (!constraints.isAllowed(giver, receiver)) {
+                    i++;
+                    continue;
+                }
+
+                unvisited[i] = unvisited[--unvisitedCount];
+                parent[receiver] = giver;
+
+                if (giverOf[receiver] == UNMATCHED) {
+                    // Invertir el camino: cada giver toma el receptor por el que se lo alcanzó
+                    int current = receiver;
+                    while (true) {
+                        int pathGiver = parent[current];
+                        int previous = receiverOf[pathGiver];
+                        receiverOf[pathGiver] = current;
+                        giverOf[current] = pathGiver;
+                        if (pathGiver == start) {
+                            return receiver;
+                        }
+                        current = previous;
+                    }
+                }
+
+                queue[tail++] = giverOf[receiver];
+            }
+        }
+
+        return UNMATCHED;
+    }
+
+    /**
+     * Ordena los givers por cantidad de receptores permitidos (ascendente), con desempate aleatorio.
+     */
+    private static int[] mostConstrainedFirst(int[] allowedCounts, RandomGenerator random) {
+        int n = allowedCounts.length;
+        int[] shuffled = shuffledIndexes(n, random);
+        long[] keys = new long[n];
+        for (int rank = 0; rank < n; rank++) {
+            keys[rank] = ((long) allowedCounts[shuffled[rank]] << 32) | rank;
+        }
+        Arrays.sort(keys);
+
+        int[] givers = new int[n];
+        for (int i = 0; i < n; i++) {
+            givers[i] = shuffled[(int) keys[i]];
+        }
+        return givers;
+    }
+
+    /**
+     * Condiciones necesarias baratas, para fallar rápido con un mensaje claro.
+     *
+     * @return cantidad de receptores permitidos por giver
+     */
+    private static int[] checkFeasibility(DrawConstraints constraints) {
+        int n = constraints.size();
+        int[] groupSizes = new int[constraints.groupCount()];
+        for (int i = 0; i < n; i++) {
+            int group = constraints.groupOf(i);
+            if (group >= 0) {
+                groupSizes[group]++;
+            }
+        }
+
+        // Los miembros de un grupo necesitan |G| receptores (y |G| regaladores) fuera del grupo
+        for (int size : groupSizes) {
+            if (size > n - size) {
+                throw new InfeasibleDrawException("an exclusion group has " + size
+                        + " members, more than half of the " + n + " participants");
+            }
+        }
+
+        int[] allowedCounts = new int[n];
+        for (int giver = 0; giver < n; giver++) {
+            int group = constraints.groupOf(giver);
+            int allowed = n - (group >= 0 ? groupSizes[group] : 1);
+            BitSet excluded = constraints.excludedOf(giver);
+            if (excluded != null) {
+                for (int r = excluded.nextSetBit(0); r >= 0; r = excluded.nextSetBit(r + 1)) {
+                    if (r != giver && (group < 0 || constraints.groupOf(r) != group)) {
+                        allowed--;
+                    }
+                }
+            }
+            if (allowed <= 0) {
+                throw new InfeasibleDrawException("participant #" + giver + " cannot give to anyone");
+            }
+            allowedCounts[giver] = allowed;
+        }
+        return allowedCounts;
+    }
+
+    private static int[] shuffledIndexes(int n, RandomGenerator random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,54 @@
+package com.dperalta.secret_santa.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class CsvLineParser {
+
+    /**
+     * Separa una línea CSV en campos.
+     * Soporta campos entre comillas dobles con comas y comillas escapadas ("").
+     * No soporta saltos de línea dentro de un campo.
+     *
+     * @param line línea sin el salto de línea final
+     * @return campos sin comillas ni espacios alrededor
+     * @throws IllegalArgumentException si hay comillas sin cerrar
+     */
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -4,99 +4,198 @@ import com.dperalta.secret_santa.model.Participant;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
-import java.security.SecureRandom;
-import java.util.*;
+import java.util.List;
+import java.util.random.RandomGenerator;
 
 @Slf4j
 @UtilityClass
 public class DrawAlgorithm {
 
-    private static final SecureRandom RANDOM = new SecureRandom();
-
     /**
      * Realiza el sorteo de amigo invisible usando un ciclo hamiltoniano.
      * Algoritmo:
-     * 1. Mezcla aleatoriamente la lista de participantes
-     * 2. Asigna cada participante al siguiente en la lista (circular)
+     * 1. Mezcla aleatoriamente los índices de los participantes (Fisher-Yates sobre int[])
+     * 2. Asigna cada índice al siguiente en el orden mezclado (circular)
      * <p>
      * Este enfoque garantiza que:
      * - Nadie se regala a sí mismo
      * - Todos dan y reciben exactamente un regalo
      * - Forma un ciclo cerrado (A→B→C→D→A)
      * - Siempre funciona en O(n) sin reintentos
+     * <p>
+     * Trabaja sólo con arrays primitivos: no crea un nodo de mapa por participante
+     * ni depende de hashCode de {@link Participant}.
      *
      * @param participants lista de participantes (mínimo 3)
-     * @return mapa de asignaciones (giver → receiver)
+     * @return asignaciones como permutación de índices sobre la lista recibida
      * @throws IllegalArgumentException si hay menos de 3 participantes
      */
-    public static Map<Participant, Participant> performDraw(List<Participant> participants) {
+    public static DrawAssignment performDraw(List<Participant> participants) {
+        return performDraw(participants, StripedSecureRandom.DEFAULT.current());
+    }
+
+    /**
+     * Igual que {@link #performDraw(List)} con un generador explícito.
+     *
+     * @param participants lista de participantes (mínimo 3)
+     * @param random       generador del hilo actual (o uno determinista para reproducir el sorteo)
+     * @return asignaciones como permutación de índices sobre la lista recibida
+     */
+    public static DrawAssignment performDraw(List<Participant> participants, RandomGenerator random) {
         if (participants == null || participants.size() < 3) {
             throw new IllegalArgumentException("At least 3 participants are required for a secret santa draw");
         }
 
-        log.info("Performing draw for {} participants using circular assignment", participants.size());
+        int n = participants.size();
+        log.info("Performing draw for {} participants using circular assignment", n);
+
+        // Orden aleatorio de índices
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        // Crear asignaciones circulares: último → primero
+        int[] receivers = new int[n];
+        for (int i = 0; i < n - 1; i++) {
+            receivers[order[i]] = order[i + 1];
+        }
+        receivers[order[n - 1]] = order[0];
 
-        // Crear una copia para no modificar la lista original
-        List<Participant> shuffled = new ArrayList<>(participants);
+        DrawAssignment assignment = new DrawAssignment(participants.toArray(new Participant[0]), receivers);
 
-        // Mezclar aleatoriamente
-        Collections.shuffle(shuffled, RANDOM);
+        if (log.isDebugEnabled()) {
+            assignment.forEach((giver, receiver) -> log.debug("{} → {}", giver.getName(), receiver.getName()));
+        }
 
-        // Crear asignaciones circulares
-        Map<Participant, Participant> assignments = new HashMap<>();
-        int n = shuffled.size();
+        log.info("Draw completed successfully. Created cycle of {} assignments", n);
+        return assignment;
+    }
 
-        for (int i = 0; i < n; i++) {
-            Participant giver = shuffled.get(i);
-            Participant receiver = shuffled.get((i + 1) % n); // Circular: último → primero
+    /**
+     * Realiza el sorteo respetando reglas de exclusión.
+     * Sin reglas usa el ciclo hamiltoniano de {@link #performDraw(List)}; con reglas delega en
+     * {@link ConstrainedDrawAlgorithm}, cuyo resultado puede tener varios ciclos.
+     *
+     * @param participants lista de participantes (mínimo 3)
+     * @param constraints  restricciones sobre los índices de {@code participants}
+     * @return asignaciones como permutación de índices sobre la lista recibida
+     * @throws com.dperalta.secret_santa.exception.InfeasibleDrawException si las reglas no admiten solución
+     */
+    public static DrawAssignment performDraw(List<Participant> participants, DrawConstraints constraints) {
+        return performDraw(participants, constraints, StripedSecureRandom.DEFAULT.current());
+    }
+
+    /**
+     * Igual que {@link #performDraw(List, DrawConstraints)} con un generador explícito.
+     * Con un generador determinista, los mismos participantes (en el mismo orden) y las mismas
+     * restricciones producen siempre la misma asignación.
+     */
+    public static DrawAssignment performDraw(List<Participant> participants, DrawConstraints constraints,
+                                             RandomGenerator random) {
+        if (constraints == null || constraints.isEmpty()) {
+            return performDraw(participants, random);
+        }
+        if (participants == null || participants.size() < 3) {
+            throw new IllegalArgumentException("At least 3 participants are required for a secret santa draw");
+        }
+        if (constraints.size() != participants.size()) {
+            throw new IllegalArgumentException("Constraints size does not match participants");
+        }
+
+        log.info("Performing constrained draw for {} participants", participants.size());
+        int[] receivers = ConstrainedDrawAlgorithm.solve(constraints, random);
+        return new DrawAssignment(participants.toArray(new Participant[0]), receivers);
+    }
+
+    /**
+     * Valida una asignación con reglas: que sea una permutación (todos dan y reciben una vez)
+     * y que ningún par viole las restricciones. No exige un único ciclo.
+     *
+     * @param assignment  asignaciones del sorteo
+     * @param constraints restricciones del sorteo
+     * @return true si es válida
+     */
+    public static boolean isValidDraw(DrawAssignment assignment, DrawConstraints constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            return isValidDraw(assignment);
+        }
+        if (assignment == null || assignment.size() == 0 || assignment.size() != constraints.size()) {
+            return false;
+        }
 
-            assignments.put(giver, receiver);
-            log.debug("{} → {}", giver.getName(), receiver.getName());
+        int n = assignment.size();
+        boolean[] received = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int receiver = assignment.getReceiverIndex(i);
+            if (receiver < 0 || receiver >= n || received[receiver]) {
+                log.error("Invalid draw: receiver index {} out of range or assigned twice", receiver);
+                return false;
+            }
+            if (!constraints.isAllowed(i, receiver)) {
+                log.error("Invalid draw: {} → {} violates exclusion rules",
+                        assignment.getGiver(i).getName(), assignment.getReceiver(i).getName());
+                return false;
+            }
+            received[receiver] = true;
         }
 
-        log.info("Draw completed successfully. Created cycle of {} assignments", assignments.size());
-        return assignments;
+        return true;
     }
 
     /**
      * Valida que las asignaciones formen un ciclo válido.
-     * Útil para testing.
+     * Recorre la permutación desde el índice 0 marcando visitados en un boolean[],
+     * por lo que es O(n) en tiempo y memoria.
      *
-     * @param assignments mapa de asignaciones
+     * @param assignment asignaciones del sorteo
      * @return true si es válido
      */
-    public static boolean isValidDraw(Map<Participant, Participant> assignments) {
-        if (assignments == null || assignments.isEmpty()) {
+    public static boolean isValidDraw(DrawAssignment assignment) {
+        if (assignment == null || assignment.size() == 0) {
             return false;
         }
 
-        // Verificar que nadie se regala a sí mismo
-        for (Map.Entry<Participant, Participant> entry : assignments.entrySet()) {
-            if (entry.getKey().equals(entry.getValue())) {
-                log.error("Invalid draw: {} assigned to themselves", entry.getKey().getName());
+        int n = assignment.size();
+
+        // Verificar que nadie se regala a sí mismo y que los índices sean válidos
+        for (int i = 0; i < n; i++) {
+            int receiver = assignment.getReceiverIndex(i);
+            if (receiver < 0 || receiver >= n) {
+                log.error("Invalid draw: receiver index {} out of range", receiver);
+                return false;
+            }
+            if (receiver == i) {
+                log.error("Invalid draw: {} assigned to themselves", assignment.getGiver(i).getName());
                 return false;
             }
         }
 
         // Verificar que forme un ciclo completo
-        Set<Participant> visited = new HashSet<>();
-        Participant current = assignments.keySet().iterator().next();
-        Participant start = current;
+        boolean[] visited = new boolean[n];
+        int visitedCount = 0;
+        int current = 0;
 
         do {
-            if (visited.contains(current)) {
+            if (visited[current]) {
                 log.error("Invalid draw: cycle detected before completing full loop");
                 return false;
             }
-            visited.add(current);
-            current = assignments.get(current);
-        } while (current != null && !current.equals(start));
+            visited[current] = true;
+            visitedCount++;
+            current = assignment.getReceiverIndex(current);
+        } while (current != 0);
 
-        boolean isValid = visited.size() == assignments.size() && current != null;
+        boolean isValid = visitedCount == n;
 
         if (!isValid) {
-            log.error("Invalid draw: incomplete cycle. Visited {}, expected {}",
-                    visited.size(), assignments.size());
+            log.error("Invalid draw: incomplete cycle. Visited {}, expected {}", visitedCount, n);
         }
 
         return isValid;
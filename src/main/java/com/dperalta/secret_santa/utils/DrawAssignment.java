@@ -0,0 +1,64 @@
+package com.dperalta.secret_santa.utils;
+
+import com.dperalta.secret_santa.model.Participant;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Resultado compacto de un sorteo.
+ * Guarda los participantes en un array y las asignaciones como una permutación
+ * de índices: receivers[i] es el índice del participante al que le regala el i-ésimo.
+ * <p>
+ * No depende de equals/hashCode de {@link Participant}, por lo que construirla
+ * y recorrerla es O(n) sin importar el tamaño del sorteo.
+ */
+public final class DrawAssignment {
+
+    private final Participant[] participants;
+    private final int[] receivers;
+
+    DrawAssignment(Participant[] participants, int[] receivers) {
+        if (participants.length != receivers.length) {
+            throw new IllegalArgumentException("Participants and receivers must have the same length");
+        }
+        this.participants = participants;
+        this.receivers = receivers;
+    }
+
+    /**
+     * Crea una asignación a partir de una lista de participantes y la permutación de receptores.
+     *
+     * @param participants participantes en el orden al que refieren los índices
+     * @param receivers    índice del receptor para cada participante
+     * @return asignación
+     */
+    public static DrawAssignment of(List<Participant> participants, int[] receivers) {
+        return new DrawAssignment(participants.toArray(new Participant[0]), receivers.clone());
+    }
+
+    public int size() {
+        return participants.length;
+    }
+
+    public Participant getGiver(int index) {
+        return participants[index];
+    }
+
+    public int getReceiverIndex(int giverIndex) {
+        return receivers[giverIndex];
+    }
+
+    public Participant getReceiver(int giverIndex) {
+        return participants[receivers[giverIndex]];
+    }
+
+    /**
+     * Recorre las asignaciones en orden de índice (giver → receiver).
+     */
+    public void forEach(BiConsumer<Participant, Participant> action) {
+        for (int i = 0; i < participants.length; i++) {
+            action.accept(participants[i], participants[receivers[i]]);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dperalta.secret_santa.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Restricciones de un sorteo sobre índices de participantes.
+ * <ul>
+ *     <li>Grupos: cada participante pertenece como máximo a un grupo; nadie le regala a alguien de su grupo.</li>
+ *     <li>Exclusiones puntuales: adyacencia en bitsets por giver, creados sólo para quienes tienen exclusiones.</li>
+ * </ul>
+ * Consultar si un par está permitido es O(1) y la memoria es proporcional a la cantidad de reglas.
+ */
+public final class DrawConstraints {
+
+    private static final int NO_GROUP = -1;
+
+    private final int size;
+    private final int[] group;
+    private final BitSet[] excluded;
+    private int groupCount;
+    private boolean empty = true;
+
+    public DrawConstraints(int size) {
+        this.size = size;
+        this.group = new int[size];
+        this.excluded = new BitSet[size];
+        Arrays.fill(group, NO_GROUP);
+    }
+
+    /**
+     * Restricciones vacías (sorteo sin reglas).
+     */
+    public static DrawConstraints none(int size) {
+        return new DrawConstraints(size);
+    }
+
+    /**
+     * Copia independiente, para agregar restricciones sin modificar las originales.
+     */
+    public DrawConstraints copy() {
+        DrawConstraints copy = new DrawConstraints(size);
+        System.arraycopy(group, 0, copy.group, 0, size);
+        for (int i = 0; i < size; i++) {
+            if (excluded[i] != null) {
+                copy.excluded[i] = (BitSet) excluded[i].clone();
+            }
+        }
+        copy.groupCount = groupCount;
+        copy.empty = empty;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Crea un nuevo grupo de exclusión y devuelve su id.
+     */
+    public int newGroup() {
+        return groupCount++;
+    }
+
+    /**
+     * Agrega un participante a un grupo.
+     *
+     * @throws IllegalArgumentException si el participante ya pertenece a otro grupo
+     */
+    public void addToGroup(int participant, int groupId) {
+        if (group[participant] != NO_GROUP && group[participant] != groupId) {
+            throw new IllegalArgumentException("Participant " + participant + " already belongs to another exclusion group");
+        }
+        group[participant] = groupId;
+        empty = false;
+    }
+
+    /**
+     * Prohíbe que giver le regale a receiver (en ese sentido).
+     */
+    public void exclude(int giver, int receiver) {
+        if (giver == receiver) {
+            return;
+        }
+        if (excluded[giver] == null) {
+            excluded[giver] = new BitSet(size);
+        }
+        excluded[giver].set(receiver);
+        empty = false;
+    }
+
+    public boolean isAllowed(int giver, int receiver) {
+        if (giver == receiver) {
+            return false;
+        }
+        if (group[giver] != NO_GROUP && group[giver] == group[receiver]) {
+            return false;
+        }
+        return excluded[giver] == null || !excluded[giver].get(receiver);
+    }
+
+    int groupOf(int participant) {
+        return group[participant];
+    }
+
+    int groupCount() {
+        return groupCount;
+    }
+
+    BitSet excludedOf(int giver) {
+        return excluded[giver];
+    }
+}
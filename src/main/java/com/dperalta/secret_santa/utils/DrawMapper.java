@@ -2,9 +2,13 @@ package com.dperalta.secret_santa.utils;
 
 import com.dperalta.secret_santa.dto.response.DrawDetailResponse;
 import com.dperalta.secret_santa.dto.response.DrawResponse;
+import com.dperalta.secret_santa.dto.response.ParticipantPageResponse;
 import com.dperalta.secret_santa.dto.response.ParticipantResponse;
 import com.dperalta.secret_santa.model.Draw;
 import com.dperalta.secret_santa.model.Participant;
+import com.dperalta.secret_santa.repository.projection.DrawSummary;
+import com.dperalta.secret_santa.repository.projection.DrawView;
+import com.dperalta.secret_santa.repository.projection.ParticipantView;
 import lombok.experimental.UtilityClass;
 
 import java.util.List;
@@ -14,6 +18,10 @@ import java.util.stream.Collectors;
 public class DrawMapper {
 
     public static DrawResponse toDrawResponse(Draw draw) {
+        return toDrawResponse(draw, draw.getParticipants().size());
+    }
+
+    public static DrawResponse toDrawResponse(Draw draw, int participantCount) {
         return DrawResponse.builder()
                 .id(draw.getId())
                 .code(draw.getCode())
@@ -22,12 +30,27 @@ public class DrawMapper {
                 .drawDate(draw.getDrawDate())
                 .budgetLimit(draw.getBudgetLimit())
                 .status(draw.getStatus())
-                .participantCount(draw.getParticipants().size())
+                .participantCount(participantCount)
                 .createdAt(draw.getCreatedAt())
                 .updatedAt(draw.getUpdatedAt())
                 .build();
     }
 
+    public static DrawResponse toDrawResponse(DrawSummary summary) {
+        return DrawResponse.builder()
+                .id(summary.id())
+                .code(summary.code())
+                .name(summary.name())
+                .description(summary.description())
+                .drawDate(summary.drawDate())
+                .budgetLimit(summary.budgetLimit())
+                .status(summary.status())
+                .participantCount(Math.toIntExact(summary.participantCount()))
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .build();
+    }
+
     public static DrawDetailResponse toDrawDetailResponse(Draw draw) {
         return DrawDetailResponse.builder()
                 .id(draw.getId())
@@ -37,12 +60,65 @@ public class DrawMapper {
                 .drawDate(draw.getDrawDate())
                 .budgetLimit(draw.getBudgetLimit())
                 .status(draw.getStatus())
+                .participantCount(draw.getParticipants().size())
                 .participants(toParticipantResponseList(draw.getParticipants()))
                 .createdAt(draw.getCreatedAt())
                 .updatedAt(draw.getUpdatedAt())
                 .build();
     }
 
+    /**
+     * Detalle sin la lista de participantes (modo resumen).
+     */
+    public static DrawDetailResponse toDrawDetailResponse(DrawSummary summary) {
+        return DrawDetailResponse.builder()
+                .id(summary.id())
+                .code(summary.code())
+                .name(summary.name())
+                .description(summary.description())
+                .drawDate(summary.drawDate())
+                .budgetLimit(summary.budgetLimit())
+                .status(summary.status())
+                .participantCount(Math.toIntExact(summary.participantCount()))
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .build();
+    }
+
+    /**
+     * Detalle completo a partir de proyecciones: el sorteo y sus participantes.
+     */
+    public static DrawDetailResponse toDrawDetailResponse(DrawView draw, List<ParticipantView> participants) {
+        return DrawDetailResponse.builder()
+                .id(draw.id())
+                .code(draw.code())
+                .name(draw.name())
+                .description(draw.description())
+                .drawDate(draw.drawDate())
+                .budgetLimit(draw.budgetLimit())
+                .status(draw.status())
+                .participantCount(participants.size())
+                .participants(toParticipantViewResponseList(participants))
+                .createdAt(draw.createdAt())
+                .updatedAt(draw.updatedAt())
+                .build();
+    }
+
+    /**
+     * @param page  participantes de la página (a lo sumo {@code limit})
+     * @param limit tamaño de página pedido
+     * @param more  si hay participantes después de esta página
+     */
+    public static ParticipantPageResponse toParticipantPageResponse(String drawCode, List<ParticipantView> page,
+                                                                    int limit, boolean more) {
+        return ParticipantPageResponse.builder()
+                .drawCode(drawCode)
+                .participants(toParticipantViewResponseList(page))
+                .limit(limit)
+                .nextCursor(more ? page.get(page.size() - 1).id() : null)
+                .build();
+    }
+
     public static ParticipantResponse toParticipantResponse(Participant participant) {
         return ParticipantResponse.builder()
                 .id(participant.getId())
@@ -60,4 +136,22 @@ public class DrawMapper {
                 .map(DrawMapper::toParticipantResponse)
                 .collect(Collectors.toList());
     }
+
+    public static ParticipantResponse toParticipantResponse(ParticipantView participant) {
+        return ParticipantResponse.builder()
+                .id(participant.id())
+                .name(participant.name())
+                .email(participant.email())
+                .phone(participant.phone())
+                .notificationSent(participant.notificationSent())
+                .notificationSentAt(participant.notificationSentAt())
+                .createdAt(participant.createdAt())
+                .build();
+    }
+
+    public static List<ParticipantResponse> toParticipantViewResponseList(List<ParticipantView> participants) {
+        return participants.stream()
+                .map(DrawMapper::toParticipantResponse)
+                .collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.dperalta.secret_santa.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reglas de un sorteo: restricciones fijas (grupos y exclusiones) más las parejas de sorteos
+ * anteriores con su antigüedad.
+ * <p>
+ * Las fijas no se negocian; el historial se puede relajar desde lo más viejo: {@link #constraints(int)}
+ * sólo excluye las parejas de los últimos {@code lookback} sorteos compartidos.
+ */
+public final class DrawRules {
+
+    private final DrawConstraints base;
+    private final int historyLookback;
+    private final List<int[]> history = new ArrayList<>();
+
+    /**
+     * @param base            restricciones fijas
+     * @param historyLookback lookback configurado del sorteo (0 si no usa historial)
+     */
+    public DrawRules(DrawConstraints base, int historyLookback) {
+        this.base = base;
+        this.historyLookback = historyLookback;
+    }
+
+    /**
+     * Registra una pareja del historial.
+     *
+     * @param age cantidad de sorteos compartidos posteriores (0 = el más reciente)
+     */
+    public void addHistoryPair(int giver, int receiver, int age) {
+        history.add(new int[]{giver, receiver, age});
+    }
+
+    public int historyLookback() {
+        return historyLookback;
+    }
+
+    public int historyPairs() {
+        return history.size();
+    }
+
+    /**
+     * Parejas del historial que {@link #constraints(int)} excluye con ese lookback.
+     *
+     * @return pares {giver, receiver} de índices
+     */
+    public List<int[]> historyPairs(int lookback) {
+        List<int[]> pairs = new ArrayList<>();
+        for (int[] pair : history) {
+            if (pair[2] < lookback) {
+                pairs.add(new int[]{pair[0], pair[1]});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Restricciones con todo el historial configurado.
+     */
+    public DrawConstraints constraints() {
+        return constraints(historyLookback);
+    }
+
+    /**
+     * Restricciones fijas más las parejas de los últimos {@code lookback} sorteos compartidos.
+     */
+    public DrawConstraints constraints(int lookback) {
+        if (history.isEmpty() || lookback <= 0) {
+            return base;
+        }
+        DrawConstraints constraints = base.copy();
+        for (int[] pair : history) {
+            if (pair[2] < lookback) {
+                constraints.exclude(pair[0], pair[1]);
+            }
+        }
+        return constraints;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dperalta.secret_santa.utils;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Conjunto fijo de {@link SecureRandom}, elegidos por hash del id del hilo.
+ * <p>
+ * Con hilos virtuales un generador por hilo significaría crear y sembrar un DRBG desde la entropía
+ * del sistema en cada request. Acá los generadores se crean una sola vez (el doble de núcleos,
+ * redondeado a potencia de dos) y se comparten: dos hilos sólo compiten por el lock interno de
+ * un generador cuando caen en la misma franja.
+ */
+public final class StripedSecureRandom {
+
+    /**
+     * Generadores con el algoritmo por defecto de la plataforma.
+     */
+    public static final StripedSecureRandom DEFAULT = new StripedSecureRandom(null);
+
+    private final String algorithm;
+    private final SecureRandom[] stripes;
+
+    /**
+     * @param algorithm algoritmo de {@link SecureRandom} (p. ej. DRBG), o null para el de la plataforma
+     * @throws IllegalArgumentException si el algoritmo no está disponible
+     */
+    public StripedSecureRandom(String algorithm) {
+        this(algorithm, defaultStripes());
+    }
+
+    /**
+     * @param stripes cantidad de generadores; se redondea hacia arriba a potencia de dos
+     */
+    public StripedSecureRandom(String algorithm, int stripes) {
+        this.algorithm = algorithm;
+        this.stripes = new SecureRandom[stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = newInstance(algorithm);
+        }
+    }
+
+    /**
+     * Generador de la franja del hilo actual. Es thread-safe y puede estar compartido con otros hilos.
+     */
+    public SecureRandom current() {
+        long id = Thread.currentThread().threadId();
+        // Mezcla de Fibonacci: los ids de hilos virtuales son consecutivos
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (stripes.length - 1);
+        return stripes[index];
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    public String getAlgorithm() {
+        return algorithm == null ? stripes[0].getAlgorithm() : algorithm;
+    }
+
+    private static int defaultStripes() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    private static SecureRandom newInstance(String algorithm) {
+        if (algorithm == null || algorithm.isBlank()) {
+            return new SecureRandom();
+        }
+        try {
+            return SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("SecureRandom algorithm not available: " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Intentos de ejecución automática: al llegar al máximo el sorteo deja de reclamarse
+-- (queda PENDING para revisión y ejecución manual)
+ALTER TABLE draws
+    ADD COLUMN auto_execute_attempts INT NOT NULL DEFAULT 0 AFTER auto_execute_locked_until;
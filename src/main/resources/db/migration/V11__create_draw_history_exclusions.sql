@@ -0,0 +1,12 @@
+-- Table: draw_history_exclusions
+-- Parejas del historial que se excluyeron al ejecutar el sorteo (tras relajar el lookback si hizo falta).
+-- pair_history sigue creciendo con sorteos posteriores, así que con random_seed sólo se puede
+-- reproducir una asignación si se guardan las restricciones efectivas. Sólo con app.random.audit-seed activo.
+CREATE TABLE draw_history_exclusions (
+                                         draw_id BIGINT NOT NULL,
+                                         giver_email_normalized VARCHAR(255) NOT NULL,
+                                         receiver_email_normalized VARCHAR(255) NOT NULL,
+
+                                         PRIMARY KEY (draw_id, giver_email_normalized, receiver_email_normalized),
+                                         FOREIGN KEY (draw_id) REFERENCES draws(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,5 @@
+-- Los códigos son base62 con mayúsculas y minúsculas: con la collation de la tabla (unicode_ci)
+-- el índice único consideraba iguales aB3xYz y Ab3XyZ y dos valores distintos de la permutación
+-- podían chocar. Con utf8mb4_bin el índice y las búsquedas por código distinguen mayúsculas.
+ALTER TABLE draws
+    MODIFY code VARCHAR(10) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL;
@@ -0,0 +1,20 @@
+-- Table: notification_outbox
+-- Una fila por notificación pendiente, escrita en la misma transacción que las asignaciones.
+CREATE TABLE notification_outbox (
+                                     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                     draw_id BIGINT NOT NULL,
+                                     participant_id BIGINT NOT NULL,
+                                     status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+                                     attempts INT NOT NULL DEFAULT 0,
+                                     last_error VARCHAR(1000),
+                                     available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                     locked_until TIMESTAMP NULL,
+                                     sent_at TIMESTAMP NULL,
+                                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+                                     FOREIGN KEY (draw_id) REFERENCES draws(id) ON DELETE CASCADE,
+                                     FOREIGN KEY (participant_id) REFERENCES participants(id) ON DELETE CASCADE,
+
+                                     INDEX idx_outbox_status_available (status, available_at),
+                                     INDEX idx_outbox_status_locked (status, locked_until)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,5 @@
+-- Email en minúsculas mantenido por MySQL, para buscar la asignación de un participante
+-- con un solo lookup indexado (draw_id, email_normalized).
+ALTER TABLE participants
+    ADD COLUMN email_normalized VARCHAR(255) GENERATED ALWAYS AS (LOWER(email)) STORED AFTER email,
+    ADD INDEX idx_draw_email_normalized (draw_id, email_normalized);
@@ -0,0 +1,22 @@
+-- Table: draw_exclusion_groups
+-- Miembros de un mismo grupo (pareja, familia) no pueden regalarse entre sí.
+-- Un participante pertenece como máximo a un grupo por sorteo.
+CREATE TABLE draw_exclusion_groups (
+                                       draw_id BIGINT NOT NULL,
+                                       group_no INT NOT NULL,
+                                       email_normalized VARCHAR(255) NOT NULL,
+
+                                       PRIMARY KEY (draw_id, email_normalized),
+                                       FOREIGN KEY (draw_id) REFERENCES draws(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Table: draw_exclusions
+-- Exclusiones puntuales y dirigidas: giver no puede regalarle a receiver.
+CREATE TABLE draw_exclusions (
+                                 draw_id BIGINT NOT NULL,
+                                 giver_email_normalized VARCHAR(255) NOT NULL,
+                                 receiver_email_normalized VARCHAR(255) NOT NULL,
+
+                                 PRIMARY KEY (draw_id, giver_email_normalized, receiver_email_normalized),
+                                 FOREIGN KEY (draw_id) REFERENCES draws(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
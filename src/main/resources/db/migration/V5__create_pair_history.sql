@@ -0,0 +1,18 @@
+-- Opción por sorteo: evitar repetir parejas de los últimos N sorteos compartidos
+ALTER TABLE draws
+    ADD COLUMN history_lookback INT NULL AFTER budget_limit;
+
+-- Table: pair_history
+-- Índice de parejas entre sorteos, por email normalizado. Una fila por giver de cada sorteo ejecutado,
+-- así también sirve para saber en qué sorteos participó un email.
+CREATE TABLE pair_history (
+                              draw_id BIGINT NOT NULL,
+                              giver_email_normalized VARCHAR(255) NOT NULL,
+                              receiver_email_normalized VARCHAR(255) NOT NULL,
+                              drawn_at DATETIME(6) NOT NULL,
+
+                              PRIMARY KEY (draw_id, giver_email_normalized),
+                              FOREIGN KEY (draw_id) REFERENCES draws(id) ON DELETE CASCADE,
+
+                              INDEX idx_pair_history_giver (giver_email_normalized, drawn_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
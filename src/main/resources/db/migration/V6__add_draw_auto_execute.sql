@@ -0,0 +1,5 @@
+-- Ejecución automática de sorteos vencidos (draw_date <= ahora)
+-- auto_execute_locked_until: lease del nodo que reclamó el sorteo; si vence sin ejecutarse, otro nodo lo retoma
+ALTER TABLE draws
+    ADD COLUMN auto_execute_locked_until DATETIME NULL AFTER status,
+    ADD INDEX idx_status_draw_date (status, draw_date);
@@ -0,0 +1,9 @@
+-- Table: draw_code_sequence
+-- Secuencia global de códigos de sorteo. Cada nodo reserva bloques; el código es una permutación
+-- con clave (Feistel sobre base62) del valor de la secuencia.
+CREATE TABLE draw_code_sequence (
+                                    id TINYINT PRIMARY KEY,
+                                    next_value BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO draw_code_sequence (id, next_value) VALUES (1, 0);
@@ -0,0 +1,3 @@
+-- Semilla (hex) con la que se ejecutó el sorteo, sólo con app.random.audit-seed activo
+ALTER TABLE draws
+    ADD COLUMN random_seed VARCHAR(64) NULL AFTER history_lookback;
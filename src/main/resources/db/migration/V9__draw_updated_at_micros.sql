@@ -0,0 +1,4 @@
+-- updated_at con microsegundos: es la versión del sorteo para ETag/Last-Modified,
+-- dos cambios en el mismo segundo deben dar versiones distintas
+ALTER TABLE draws
+    MODIFY updated_at TIMESTAMP(6) NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
@@ -0,0 +1,129 @@
+package com.dperalta.secret_santa.service;
+
+import com.dperalta.secret_santa.dto.request.CreateDrawRequest;
+import com.dperalta.secret_santa.dto.request.ParticipantRequest;
+import com.dperalta.secret_santa.exception.DrawAlreadyExecutedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varias ejecuciones simultáneas del mismo sorteo contra MySQL real: sólo una puede ganar el
+ * UPDATE condicional a DRAWN y el resto debe fallar con {@link DrawAlreadyExecutedException},
+ * sin escribir un segundo juego de asignaciones ni de notificaciones.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.mail.username=test@localhost",
+        "app.notifications.mode=outbox",
+        // El dispatcher no debe consumir el outbox durante el test
+        "app.notifications.outbox.poll-interval-ms=3600000"
+})
+class DrawServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int PARTICIPANTS = 20;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer mysql = new MySQLContainer("mysql:8.0");
+
+    @MockitoBean
+    JavaMailSender mailSender;
+
+    @Autowired
+    DrawService drawService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentExecutionsOfOneDrawHaveExactlyOneWinner() throws Exception {
+        String code = drawService.createDraw(drawRequest()).getCode();
+        Long drawId = jdbcTemplate.queryForObject("SELECT id FROM draws WHERE code = ?", Long.class, code);
+
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger alreadyExecuted = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        List<Future<?>> futures = new ArrayList<>(THREADS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    try {
+                        start.await();
+                        drawService.executeDraw(code);
+                        succeeded.incrementAndGet();
+                    } catch (DrawAlreadyExecutedException e) {
+                        alreadyExecuted.incrementAndGet();
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }));
+            }
+            assertThat(ready.await(30, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(1);
+        assertThat(alreadyExecuted.get()).isEqualTo(THREADS - 1);
+
+        // Un solo juego de asignaciones: todos asignados y cada uno recibe exactamente una vez
+        assertThat(count("SELECT COUNT(*) FROM participants WHERE draw_id = ? AND assigned_to_id IS NOT NULL", drawId))
+                .isEqualTo(PARTICIPANTS);
+        assertThat(count("SELECT COUNT(DISTINCT assigned_to_id) FROM participants WHERE draw_id = ?", drawId))
+                .isEqualTo(PARTICIPANTS);
+        assertThat(count("SELECT COUNT(*) FROM pair_history WHERE draw_id = ?", drawId))
+                .isEqualTo(PARTICIPANTS);
+
+        // Una sola fila de outbox por participante
+        assertThat(count("SELECT COUNT(*) FROM notification_outbox WHERE draw_id = ?", drawId))
+                .isEqualTo(PARTICIPANTS);
+        assertThat(count("SELECT COUNT(DISTINCT participant_id) FROM notification_outbox WHERE draw_id = ?", drawId))
+                .isEqualTo(PARTICIPANTS);
+    }
+
+    private long count(String sql, Long drawId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, drawId);
+    }
+
+    private static CreateDrawRequest drawRequest() {
+        List<ParticipantRequest> participants = new ArrayList<>(PARTICIPANTS);
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            participants.add(ParticipantRequest.builder()
+                    .name("Participant " + i)
+                    .email("participant" + i + "@example.com")
+                    .build());
+        }
+        return CreateDrawRequest.builder()
+                .name("Concurrency test")
+                .participants(participants)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.dperalta.secret_santa.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * La permutación debe ser una biyección sobre [0, 62^length): se verifica de forma exhaustiva
+ * con códigos de 4 caracteres (62^4 valores) y por muestreo con la longitud por defecto.
+ */
+class Base62FeistelTest {
+
+    private static final byte[] KEY = "test-code-key".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void isBijectiveOverTheWholeDomainAtLengthFour() {
+        Base62Feistel feistel = new Base62Feistel(KEY, 4);
+        long domain = feistel.domainSize();
+        assertThat(domain).isEqualTo(62L * 62 * 62 * 62);
+
+        // ~15 millones de permutaciones: se calculan en paralelo (cada valor escribe su propia posición)
+        int size = Math.toIntExact(domain);
+        long[] image = new long[size];
+        IntStream.range(0, size).parallel().forEach(value -> image[value] = feistel.permute(value));
+
+        BitSet seen = new BitSet(size);
+        for (int value = 0; value < size; value++) {
+            long permuted = image[value];
+            if (permuted < 0 || permuted >= domain) {
+                throw new AssertionError("Value " + value + " maps out of range: " + permuted);
+            }
+            if (seen.get((int) permuted)) {
+                throw new AssertionError("Values collide on " + permuted + " (second value " + value + ")");
+            }
+            seen.set((int) permuted);
+        }
+        assertThat(seen.cardinality()).isEqualTo(size);
+    }
+
+    @Test
+    void unpermuteInvertsPermute() {
+        Base62Feistel feistel = new Base62Feistel(KEY, 6);
+        long step = feistel.domainSize() / 100_000;
+        for (long value = 0; value < feistel.domainSize(); value += step) {
+            assertThat(feistel.unpermute(feistel.permute(value))).isEqualTo(value);
+        }
+        long last = feistel.domainSize() - 1;
+        assertThat(feistel.unpermute(feistel.permute(last))).isEqualTo(last);
+    }
+
+    @Test
+    void encodesFixedLengthBase62Codes() {
+        Base62Feistel feistel = new Base62Feistel(KEY, 6);
+        for (long value = 0; value < 1_000; value++) {
+            assertThat(feistel.encode(value)).matches("[0-9A-Za-z]{6}");
+        }
+    }
+
+    @Test
+    void dependsOnTheKey() {
+        Base62Feistel first = new Base62Feistel(KEY, 6);
+        Base62Feistel second = new Base62Feistel("other-key".getBytes(StandardCharsets.UTF_8), 6);
+        int same = 0;
+        for (long value = 0; value < 1_000; value++) {
+            if (first.permute(value) == second.permute(value)) {
+                same++;
+            }
+        }
+        assertThat(same).isLessThan(5);
+    }
+
+    @Test
+    void rejectsOutOfRangeValuesAndLengths() {
+        Base62Feistel feistel = new Base62Feistel(KEY, 4);
+        assertThatThrownBy(() -> feistel.permute(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> feistel.permute(feistel.domainSize())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Base62Feistel(KEY, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Base62Feistel(KEY, 11)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Base62Feistel(new byte[0], 6)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
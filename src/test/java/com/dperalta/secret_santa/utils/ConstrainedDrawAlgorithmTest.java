@@ -0,0 +1,149 @@
+package com.dperalta.secret_santa.utils;
+
+import com.dperalta.secret_santa.exception.InfeasibleDrawException;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Matching con reglas de exclusión: asignaciones válidas cuando existen (también cuando el greedy
+ * necesita caminos de aumento) e InfeasibleDrawException cuando no, incluida una violación de Hall
+ * que los chequeos rápidos no detectan.
+ */
+class ConstrainedDrawAlgorithmTest {
+
+    private static final int SEEDS = 200;
+
+    @Test
+    void respectsGroupsAndExclusions() {
+        DrawConstraints constraints = new DrawConstraints(10);
+        int couple = constraints.newGroup();
+        constraints.addToGroup(0, couple);
+        constraints.addToGroup(1, couple);
+        int family = constraints.newGroup();
+        constraints.addToGroup(2, family);
+        constraints.addToGroup(3, family);
+        constraints.addToGroup(4, family);
+        constraints.exclude(5, 6);
+        constraints.exclude(6, 5);
+        constraints.exclude(7, 8);
+
+        for (int seed = 0; seed < SEEDS; seed++) {
+            assertValid(ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(seed)), constraints);
+        }
+    }
+
+    @Test
+    void groupOfExactlyHalfForcesCrossAssignments() {
+        // Con un grupo de n/2 cada miembro regala y recibe fuera: el único matching cruza las mitades
+        DrawConstraints constraints = new DrawConstraints(6);
+        int group = constraints.newGroup();
+        for (int i = 0; i < 3; i++) {
+            constraints.addToGroup(i, group);
+        }
+
+        for (int seed = 0; seed < SEEDS; seed++) {
+            int[] receivers = ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(seed));
+            assertValid(receivers, constraints);
+            for (int i = 0; i < 3; i++) {
+                assertThat(receivers[i]).isGreaterThanOrEqualTo(3);
+            }
+        }
+    }
+
+    @Test
+    void findsTheOnlyAssignmentLeft() {
+        // Cada giver sólo puede regalarle al siguiente: un único ciclo posible, que el sondeo
+        // aleatorio suele romper y hay que recuperar con caminos de aumento
+        int n = 12;
+        DrawConstraints constraints = new DrawConstraints(n);
+        for (int giver = 0; giver < n; giver++) {
+            for (int receiver = 0; receiver < n; receiver++) {
+                if (receiver != (giver + 1) % n) {
+                    constraints.exclude(giver, receiver);
+                }
+            }
+        }
+
+        for (int seed = 0; seed < SEEDS; seed++) {
+            int[] receivers = ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(seed));
+            for (int giver = 0; giver < n; giver++) {
+                assertThat(receivers[giver]).isEqualTo((giver + 1) % n);
+            }
+        }
+    }
+
+    @Test
+    void rejectsGroupLargerThanHalf() {
+        DrawConstraints constraints = new DrawConstraints(5);
+        int group = constraints.newGroup();
+        for (int i = 0; i < 3; i++) {
+            constraints.addToGroup(i, group);
+        }
+
+        assertThatThrownBy(() -> ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(1)))
+                .isInstanceOf(InfeasibleDrawException.class)
+                .hasMessageContaining("more than half");
+    }
+
+    @Test
+    void rejectsParticipantWithNoAllowedReceiver() {
+        DrawConstraints constraints = new DrawConstraints(4);
+        constraints.exclude(0, 1);
+        constraints.exclude(0, 2);
+        constraints.exclude(0, 3);
+
+        assertThatThrownBy(() -> ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(1)))
+                .isInstanceOf(InfeasibleDrawException.class)
+                .hasMessageContaining("cannot give to anyone");
+    }
+
+    @Test
+    void rejectsHallViolationThatPassesQuickChecks() {
+        // 0 y 1 sólo pueden regalarle a 2: cada uno tiene un receptor permitido,
+        // pero dos givers comparten un único receptor y no hay matching perfecto
+        DrawConstraints constraints = new DrawConstraints(4);
+        constraints.exclude(0, 1);
+        constraints.exclude(0, 3);
+        constraints.exclude(1, 0);
+        constraints.exclude(1, 3);
+
+        for (int seed = 0; seed < SEEDS; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            assertThatThrownBy(() -> ConstrainedDrawAlgorithm.solve(constraints, random))
+                    .isInstanceOf(InfeasibleDrawException.class)
+                    .hasMessageContaining("no assignment exists");
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameAssignment() {
+        DrawConstraints constraints = new DrawConstraints(30);
+        int group = constraints.newGroup();
+        constraints.addToGroup(0, group);
+        constraints.addToGroup(1, group);
+        constraints.exclude(2, 3);
+
+        int[] first = ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(42));
+        int[] second = ConstrainedDrawAlgorithm.solve(constraints, new SplittableRandom(42));
+
+        assertThat(second).containsExactly(first);
+    }
+
+    private static void assertValid(int[] receivers, DrawConstraints constraints) {
+        int n = constraints.size();
+        assertThat(receivers).hasSize(n);
+        boolean[] received = new boolean[n];
+        for (int giver = 0; giver < n; giver++) {
+            int receiver = receivers[giver];
+            assertThat(constraints.isAllowed(giver, receiver))
+                    .as("%d -> %d must be allowed", giver, receiver)
+                    .isTrue();
+            assertThat(received[receiver]).as("%d receives twice", receiver).isFalse();
+            received[receiver] = true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dperalta.secret_santa.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvLineParserTest {
+
+    @Test
+    void splitsPlainFieldsAndTrimsThem() {
+        assertThat(CsvLineParser.parse("Ana, ana@example.com ,+54 11 5555"))
+                .containsExactly("Ana", "ana@example.com", "+54 11 5555");
+    }
+
+    @Test
+    void keepsCommasInsideQuotes() {
+        assertThat(CsvLineParser.parse("\"Pérez, Ana\",ana@example.com,"))
+                .containsExactly("Pérez, Ana", "ana@example.com", "");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertThat(CsvLineParser.parse("\"Ana \"\"la jefa\"\" Pérez\",ana@example.com"))
+                .containsExactly("Ana \"la jefa\" Pérez", "ana@example.com");
+        assertThat(CsvLineParser.parse("\"\"\"\",x"))
+                .containsExactly("\"", "x");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(CsvLineParser.parse(",ana@example.com,"))
+                .containsExactly("", "ana@example.com", "");
+        assertThat(CsvLineParser.parse("\"\",,\"\""))
+                .containsExactly("", "", "");
+        assertThat(CsvLineParser.parse(""))
+                .containsExactly("");
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() {
+        assertThatThrownBy(() -> CsvLineParser.parse("\"Ana,ana@example.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field");
+    }
+}
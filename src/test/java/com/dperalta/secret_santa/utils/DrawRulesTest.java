@@ -0,0 +1,85 @@
+package com.dperalta.secret_santa.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relajación del historial: {@code constraints(lookback)} excluye sólo las parejas más recientes
+ * que el lookback y nunca modifica las restricciones fijas.
+ */
+class DrawRulesTest {
+
+    @Test
+    void excludesOnlyPairsYoungerThanLookback() {
+        DrawRules rules = new DrawRules(new DrawConstraints(4), 3);
+        rules.addHistoryPair(0, 1, 0);
+        rules.addHistoryPair(1, 2, 1);
+        rules.addHistoryPair(2, 3, 2);
+
+        DrawConstraints full = rules.constraints();
+        assertThat(full.isAllowed(0, 1)).isFalse();
+        assertThat(full.isAllowed(1, 2)).isFalse();
+        assertThat(full.isAllowed(2, 3)).isFalse();
+
+        DrawConstraints relaxed = rules.constraints(2);
+        assertThat(relaxed.isAllowed(0, 1)).isFalse();
+        assertThat(relaxed.isAllowed(1, 2)).isFalse();
+        assertThat(relaxed.isAllowed(2, 3)).isTrue();
+
+        DrawConstraints latestOnly = rules.constraints(1);
+        assertThat(latestOnly.isAllowed(0, 1)).isFalse();
+        assertThat(latestOnly.isAllowed(1, 2)).isTrue();
+
+        assertThat(rules.historyPairs(2)).hasSize(2);
+        assertThat(rules.historyPairs(1).get(0)).containsExactly(0, 1);
+    }
+
+    @Test
+    void historyExclusionsAreDirected() {
+        DrawRules rules = new DrawRules(new DrawConstraints(3), 1);
+        rules.addHistoryPair(0, 1, 0);
+
+        DrawConstraints constraints = rules.constraints();
+        assertThat(constraints.isAllowed(0, 1)).isFalse();
+        assertThat(constraints.isAllowed(1, 0)).isTrue();
+    }
+
+    @Test
+    void zeroLookbackReturnsTheFixedConstraints() {
+        DrawConstraints base = new DrawConstraints(4);
+        base.exclude(0, 2);
+        DrawRules rules = new DrawRules(base, 2);
+        rules.addHistoryPair(0, 1, 0);
+
+        assertThat(rules.constraints(0)).isSameAs(base);
+        assertThat(rules.historyPairs(0)).isEmpty();
+    }
+
+    @Test
+    void neverMutatesTheFixedConstraints() {
+        DrawConstraints base = new DrawConstraints(4);
+        int group = base.newGroup();
+        base.addToGroup(2, group);
+        base.addToGroup(3, group);
+        DrawRules rules = new DrawRules(base, 1);
+        rules.addHistoryPair(0, 1, 0);
+
+        DrawConstraints withHistory = rules.constraints();
+
+        assertThat(withHistory).isNotSameAs(base);
+        assertThat(withHistory.isAllowed(0, 1)).isFalse();
+        assertThat(withHistory.isAllowed(2, 3)).isFalse();
+        assertThat(base.isAllowed(0, 1)).isTrue();
+        assertThat(base.isAllowed(2, 3)).isFalse();
+    }
+
+    @Test
+    void withoutHistoryEveryLookbackGivesTheFixedConstraints() {
+        DrawConstraints base = new DrawConstraints(3);
+        DrawRules rules = new DrawRules(base, 5);
+
+        assertThat(rules.constraints()).isSameAs(base);
+        assertThat(rules.historyPairs()).isEqualTo(0);
+    }
+}